@@ -0,0 +1,47 @@
+#!/bin/sh
+# Measures the time from starting the application to its first successful health check, so startup can be compared
+# across releases and launch options. Starts the given command, polls the health endpoint and stops the command again.
+#
+# Usage: scripts/startup-time.sh [-u health-url] [-t timeout-seconds] command [args...]
+#   scripts/startup-time.sh java -jar target/device-management-service.jar
+#   scripts/startup-time.sh docker run --rm -p 8080:8080 -e DB_HOST=host.docker.internal device-management-service
+
+url=http://localhost:8080/actuator/health
+timeout=120
+while getopts "u:t:" option; do
+    case $option in
+        u) url=$OPTARG ;;
+        t) timeout=$OPTARG ;;
+        *) exit 2 ;;
+    esac
+done
+shift $((OPTIND - 1))
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 [-u health-url] [-t timeout-seconds] command [args...]" >&2
+    exit 2
+fi
+
+now_millis() {
+    date +%s%3N
+}
+
+log=${TMPDIR:-/tmp}/startup-time.log
+start=$(now_millis)
+"$@" > "$log" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null' EXIT
+
+deadline=$((start + timeout * 1000))
+until curl -sf -o /dev/null "$url"; do
+    if ! kill -0 $pid 2>/dev/null; then
+        echo "Application exited before it was healthy, see $log" >&2
+        exit 1
+    fi
+    if [ "$(now_millis)" -ge "$deadline" ]; then
+        echo "Application not healthy after ${timeout}s, see $log" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+
+echo "Healthy after $(($(now_millis) - start)) ms"
@@ -0,0 +1,103 @@
+package com.interview.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.interview.DeviceManagementApp;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * PostgreSQL database for benchmarks. Uses the database from {@code BENCHMARK_DATASOURCE_URL}
+ * ({@code BENCHMARK_DATASOURCE_USERNAME}, {@code BENCHMARK_DATASOURCE_PASSWORD}) when set,
+ * otherwise starts a Testcontainers PostgreSQL instance for the lifetime of the benchmark fork.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> container;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private BenchmarkDatabase(PostgreSQLContainer<?> container, String url, String username, String password) {
+        this.container = container;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    static BenchmarkDatabase start() {
+        String url = System.getenv("BENCHMARK_DATASOURCE_URL");
+        if (url != null) {
+            return new BenchmarkDatabase(null, url, System.getenv("BENCHMARK_DATASOURCE_USERNAME"),
+                    System.getenv("BENCHMARK_DATASOURCE_PASSWORD"));
+        }
+
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:16")
+                .withDatabaseName("devices_benchmark_db");
+        container.start();
+        return new BenchmarkDatabase(container, container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+
+    /**
+     * Start the application without the web layer against this database.
+     * @param properties - Additional application properties.
+     * @return - Started application context.
+     */
+    ConfigurableApplicationContext startApplication(Map<String, Object> properties) {
+        return startApplication(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Start the application with the embedded web server on a random port against this database.
+     * The port is available as {@code local.server.port} in the environment of the returned context.
+     * @param properties - Additional application properties.
+     * @return - Started application context.
+     */
+    ConfigurableApplicationContext startWebApplication(Map<String, Object> properties) {
+        Map<String, Object> webProperties = new HashMap<>(properties);
+        webProperties.putIfAbsent("server.port", 0);
+        return startApplication(WebApplicationType.SERVLET, webProperties);
+    }
+
+    private ConfigurableApplicationContext startApplication(WebApplicationType webApplicationType,
+                                                            Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.datasource.url", url);
+        defaults.put("spring.datasource.username", username);
+        defaults.put("spring.datasource.password", password);
+        defaults.put("logging.level.root", "WARN");
+        defaults.putAll(properties);
+
+        return new SpringApplicationBuilder(DeviceManagementApp.class)
+                .web(webApplicationType)
+                .properties(defaults)
+                .run();
+    }
+
+    /**
+     * Replace all devices with generated ones spread over 50 brands and all states.
+     * @param context - Application context started by {@link #startApplication(Map)}.
+     * @param devices - Number of devices.
+     */
+    static void seed(ConfigurableApplicationContext context, int devices) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("TRUNCATE device");
+        jdbcTemplate.update("INSERT INTO device (id, name, brand, state, creation_time) "
+                + "SELECT nextval('device_id_seq'), 'Device ' || g, 'Brand ' || (g % 50), "
+                + "(ARRAY['AVAILABLE', 'IN_USE', 'INACTIVE'])[1 + g % 3], now() "
+                + "FROM generate_series(1, ?) g", devices);
+        jdbcTemplate.execute("ANALYZE device");
+    }
+
+    @Override
+    public void close() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.interview.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.repository.DeviceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Latency of the queries behind the hot device endpoints with a growing archive of inactive devices. The number of
+ * available and in-use devices stays the same, only {@code archived} inactive devices are added. With the device
+ * table partitioned by state the hot queries should not slow down as the archive grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceArchiveBenchmark {
+
+    private static final int HOT_DEVICES = 20_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "1000000"})
+    int archived;
+
+    private BenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private DeviceRepository deviceRepository;
+    private TransactionTemplate readOnly;
+    private long[] hotIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        context = database.startApplication(Map.of("device.cache.enabled", false));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("TRUNCATE device");
+        insert(jdbcTemplate, HOT_DEVICES, "(ARRAY['AVAILABLE', 'IN_USE'])[1 + g % 2]");
+        insert(jdbcTemplate, archived, "'INACTIVE'");
+        // vacuumed, so autovacuum does not run during measurements and counts can use index-only scans
+        jdbcTemplate.execute("VACUUM ANALYZE device");
+
+        deviceRepository = context.getBean(DeviceRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        hotIds = jdbcTemplate.queryForList("SELECT id FROM device WHERE state <> 'INACTIVE'", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, int devices, String state) {
+        jdbcTemplate.update("INSERT INTO device (id, name, brand, state, creation_time) "
+                + "SELECT nextval('device_id_seq'), 'Device ' || g, 'Brand ' || (g % 50), " + state + ", "
+                + "now() - g * interval '1 second' "
+                + "FROM generate_series(1, ?) g", devices);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public DeviceResponseDto byId() {
+        long id = hotIds[ThreadLocalRandom.current().nextInt(hotIds.length)];
+        return readOnly.execute(status -> deviceRepository.findResponseById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public List<DeviceResponseDto> pageByState() {
+        Pageable pageable = randomPage("creationTime");
+        return readOnly.execute(status -> deviceRepository.findListByState(DeviceState.AVAILABLE, pageable));
+    }
+
+    @Benchmark
+    public List<DeviceResponseDto> pageByBrandAndState() {
+        Pageable pageable = randomPage("id");
+        String brand = "Brand " + ThreadLocalRandom.current().nextInt(50);
+        return readOnly.execute(status -> deviceRepository.findListByBrandIgnoreCaseAndState(brand,
+                DeviceState.IN_USE, pageable));
+    }
+
+    @Benchmark
+    public long countByState() {
+        return readOnly.execute(status -> deviceRepository.countByState(DeviceState.AVAILABLE));
+    }
+
+    private static Pageable randomPage(String sort) {
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(5), PAGE_SIZE, Sort.by(sort));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.interview.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.interview.dto.DevicePageResponseDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Throughput of encoding and decoding device responses as JSON, CBOR and Smile, with object mappers configured
+ * like the message converters of the application. Run with {@code -prof gc} to compare allocations per operation;
+ * the payload sizes are printed on setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceBinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    private ObjectMapper objectMapper;
+    private DeviceResponseDto device;
+    private DevicePageResponseDto page;
+    private byte[] encodedDevice;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        device = device(1L);
+        List<DeviceResponseDto> content = LongStream.rangeClosed(1, 1000)
+                .mapToObj(DeviceBinaryFormatBenchmark::device)
+                .toList();
+        page = DevicePageResponseDto.of(new PageImpl<>(content, PageRequest.of(0, 1000), 100_000));
+        encodedDevice = objectMapper.writeValueAsBytes(device);
+        encodedPage = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%s: device %d bytes, page of 1000 %d bytes%n", format, encodedDevice.length,
+                encodedPage.length);
+    }
+
+    @Benchmark
+    public byte[] encodeDevice() throws IOException {
+        return objectMapper.writeValueAsBytes(device);
+    }
+
+    @Benchmark
+    public DeviceResponseDto decodeDevice() throws IOException {
+        return objectMapper.readValue(encodedDevice, DeviceResponseDto.class);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    // the page envelope has no creator, clients read it as a tree
+    @Benchmark
+    public JsonNode decodePage() throws IOException {
+        return objectMapper.readTree(encodedPage);
+    }
+
+    private static DeviceResponseDto device(long id) {
+        return new DeviceResponseDto(id, "iPhone 15 Pro " + id, "Apple", DeviceState.AVAILABLE,
+                LocalDateTime.of(2024, 1, 15, 10, 30));
+    }
+
+}
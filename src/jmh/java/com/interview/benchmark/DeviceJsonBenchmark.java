@@ -0,0 +1,138 @@
+package com.interview.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.interview.dto.DevicePageResponseDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.ErrorResponseDto;
+import com.interview.enums.DeviceState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Throughput of the JSON serialization of device and error responses, with an {@link ObjectMapper} configured
+ * like the one of the application. The {@code *Bean} benchmarks are the baseline: reflective bean serialization
+ * and, for pages, the {@link PageImpl} structure instead of {@link DevicePageResponseDto}. Run with
+ * {@code -prof gc} to compare allocations per operation; the response sizes are printed on setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper beanMapper;
+    private DeviceResponseDto device;
+    private ErrorResponseDto error;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        beanMapper = beanMapper();
+        device = device(1L);
+        error = new ErrorResponseDto(400, "Validation Failed", "Invalid input data",
+                List.of("name: Device name is required", "brand: Device brand is required"));
+        printSizes("Device", objectMapper.writeValueAsBytes(device), beanMapper.writeValueAsBytes(device));
+        printSizes("Error", objectMapper.writeValueAsBytes(error), beanMapper.writeValueAsBytes(error));
+    }
+
+    @Benchmark
+    public byte[] device() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(device);
+    }
+
+    @Benchmark
+    public byte[] deviceBean() throws JsonProcessingException {
+        return beanMapper.writeValueAsBytes(device);
+    }
+
+    @Benchmark
+    public byte[] error() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public byte[] errorBean() throws JsonProcessingException {
+        return beanMapper.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public byte[] page(Pages pages) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pages.envelope);
+    }
+
+    @Benchmark
+    public byte[] pageBean(Pages pages) throws JsonProcessingException {
+        return beanMapper.writeValueAsBytes(pages.page);
+    }
+
+    /**
+     * The same page of devices as the envelope of the API and as {@link PageImpl}.
+     */
+    @State(Scope.Thread)
+    public static class Pages {
+
+        @Param({"20", "100", "1000"})
+        int pageSize;
+
+        Page<DeviceResponseDto> page;
+        DevicePageResponseDto envelope;
+
+        @Setup
+        public void setUp() throws JsonProcessingException {
+            List<DeviceResponseDto> content = LongStream.rangeClosed(1, pageSize)
+                    .mapToObj(DeviceJsonBenchmark::device)
+                    .toList();
+            page = new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000);
+            envelope = DevicePageResponseDto.of(page);
+            printSizes("Page of " + pageSize, Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(envelope),
+                    beanMapper().writeValueAsBytes(page));
+        }
+
+    }
+
+    private static ObjectMapper beanMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .mixIn(DeviceResponseDto.class, BeanSerialized.class)
+                .mixIn(ErrorResponseDto.class, BeanSerialized.class)
+                .build();
+    }
+
+    private static void printSizes(String response, byte[] json, byte[] baseline) {
+        System.out.printf("%s: %d bytes, %d bytes with bean serialization%n", response, json.length, baseline.length);
+    }
+
+    private static DeviceResponseDto device(long id) {
+        return new DeviceResponseDto(id, "iPhone 15 Pro " + id, "Apple", DeviceState.AVAILABLE,
+                LocalDateTime.of(2024, 1, 15, 10, 30));
+    }
+
+    // restores the reflective bean serializer in place of the dedicated one
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+}
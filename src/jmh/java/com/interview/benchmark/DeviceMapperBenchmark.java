@@ -0,0 +1,66 @@
+package com.interview.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import com.interview.dto.DeviceCreateRequestDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceUpdateRequestDto;
+import com.interview.entity.DeviceEntity;
+import com.interview.enums.DeviceState;
+import com.interview.mapper.DeviceMapper;
+import com.interview.mapper.DeviceMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the generated {@link DeviceMapper} methods.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceMapperBenchmark {
+
+    private DeviceMapper mapper;
+    private DeviceEntity entity;
+    private DeviceCreateRequestDto createDto;
+    private DeviceUpdateRequestDto updateDto;
+
+    @Setup
+    public void setUp() {
+        mapper = new DeviceMapperImpl();
+        entity = new DeviceEntity("iPhone 15 Pro", "Apple", DeviceState.AVAILABLE);
+        entity.setId(42L);
+        entity.setCreationTime(LocalDateTime.of(2024, 1, 15, 10, 30));
+        createDto = new DeviceCreateRequestDto("iPhone 15 Pro", "Apple");
+        updateDto = new DeviceUpdateRequestDto(null, "Apple", DeviceState.IN_USE);
+    }
+
+    @Benchmark
+    public DeviceResponseDto toResponseDto() {
+        return mapper.toResponseDto(entity);
+    }
+
+    @Benchmark
+    public DeviceEntity toEntity() {
+        return mapper.toEntity(createDto);
+    }
+
+    @Benchmark
+    public DeviceEntity updateEntity() {
+        mapper.updateEntity(entity, updateDto);
+        return entity;
+    }
+
+}
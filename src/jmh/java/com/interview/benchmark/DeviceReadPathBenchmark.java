@@ -0,0 +1,121 @@
+package com.interview.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.entity.DeviceEntity;
+import com.interview.enums.DeviceState;
+import com.interview.mapper.DeviceMapper;
+import com.interview.repository.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the entity-plus-mapper read path (managed {@link DeviceEntity} with a dirty-checking snapshot,
+ * converted by {@link DeviceMapper}) with the DTO projection queries of {@link DeviceRepository}.
+ * Both run in a read-only transaction like the service, and the page queries use the same JPQL apart from the
+ * select clause. Run with {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceReadPathBenchmark {
+
+    private static final int DEVICES = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    private BenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private DeviceRepository deviceRepository;
+    private DeviceMapper deviceMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        context = database.startApplication(Map.of("device.cache.enabled", false));
+        BenchmarkDatabase.seed(context, DEVICES);
+
+        deviceRepository = context.getBean(DeviceRepository.class);
+        deviceMapper = context.getBean(DeviceMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        ids = context.getBean(JdbcTemplate.class).queryForList("SELECT id FROM device", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public DeviceResponseDto byIdEntity() {
+        long id = randomId();
+        return readOnly.execute(status -> deviceMapper.toResponseDto(deviceRepository.findById(id).orElseThrow()));
+    }
+
+    @Benchmark
+    public DeviceResponseDto byIdProjection() {
+        long id = randomId();
+        return readOnly.execute(status -> deviceRepository.findResponseById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public List<DeviceResponseDto> pageEntity() {
+        Pageable pageable = randomPage();
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT d FROM DeviceEntity d WHERE d.state = :state ORDER BY d.id", DeviceEntity.class)
+                .setParameter("state", DeviceState.AVAILABLE)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultStream()
+                .map(deviceMapper::toResponseDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<DeviceResponseDto> pageProjection() {
+        Pageable pageable = randomPage();
+        return readOnly.execute(status -> deviceRepository.findListByState(DeviceState.AVAILABLE, pageable));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private Pageable randomPage() {
+        // stay within the first pages, so the offset scan does not dominate the comparison
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(5), PAGE_SIZE, Sort.by("id"));
+    }
+
+}
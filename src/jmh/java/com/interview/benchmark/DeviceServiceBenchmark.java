@@ -0,0 +1,96 @@
+package com.interview.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.interview.cache.DeviceCache;
+import com.interview.cache.DeviceCountTracker;
+import com.interview.cache.DeviceListTag;
+import com.interview.dto.DeviceCreateRequestDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceUpdateRequestDto;
+import com.interview.enums.DeviceState;
+import com.interview.mapper.DeviceMapperImpl;
+import com.interview.repository.DeviceRepository;
+import com.interview.service.DeviceService;
+import com.interview.service.impl.DeviceServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Throughput of {@link DeviceServiceImpl} against {@link InMemoryDeviceRepository}, so only the service logic,
+ * mapping and count resolution are measured. The device cache is disabled and no transaction proxy is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceServiceBenchmark {
+
+    private static final int DEVICES = 1_000;
+
+    private DeviceService deviceService;
+    private Pageable pageable;
+    private DeviceCreateRequestDto createDto;
+    private DeviceUpdateRequestDto updateDto;
+
+    @Setup
+    public void setUp() {
+        DeviceRepository repository = InMemoryDeviceRepository.create();
+        DeviceCountTracker countTracker = new DeviceCountTracker(repository, true);
+        countTracker.reconcile();
+        DeviceCache cache = new DeviceCache(false, 0, Duration.ZERO, Duration.ZERO, new SimpleMeterRegistry());
+        deviceService = new DeviceServiceImpl(repository, new DeviceMapperImpl(), event -> { }, countTracker, cache,
+                new DeviceListTag(List.of(), Duration.ZERO));
+
+        for (int i = 0; i < DEVICES; i++) {
+            deviceService.createDevice(new DeviceCreateRequestDto("Device " + i, "Brand " + i % 10));
+        }
+        pageable = PageRequest.of(0, 20);
+        createDto = new DeviceCreateRequestDto("iPhone 15 Pro", "Apple");
+        updateDto = new DeviceUpdateRequestDto("iPhone 15 Pro Max", null, null);
+    }
+
+    @Benchmark
+    public DeviceResponseDto getDeviceById() {
+        return deviceService.getDeviceById(randomId());
+    }
+
+    @Benchmark
+    public DeviceResponseDto updateDevice() {
+        return deviceService.updateDevice(randomId(), updateDto, null);
+    }
+
+    @Benchmark
+    public Page<DeviceResponseDto> getDevices() {
+        return deviceService.getDevices(null, DeviceState.AVAILABLE, pageable, false);
+    }
+
+    @Benchmark
+    public DeviceResponseDto createAndDeleteDevice() {
+        DeviceResponseDto created = deviceService.createDevice(createDto);
+        deviceService.deleteDevice(created.getId());
+        return created;
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, DEVICES + 1);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.interview.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.controller.GlobalExceptionHandler;
+import com.interview.dto.DeviceCreateRequestDto;
+import com.interview.exception.DeviceNotFoundException;
+import com.interview.exception.DeviceValidationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+/**
+ * Throughput of rendering errors: {@link GlobalExceptionHandler} builds the response and the body is serialized
+ * to JSON. Exceptions are created once, so their stack traces are not part of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private DeviceNotFoundException notFound;
+    private DeviceValidationException validation;
+    private MethodArgumentNotValidException invalidArgument;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        notFound = new DeviceNotFoundException(42L);
+        validation = new DeviceValidationException("Cannot delete device that is currently in use");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(
+                new DeviceCreateRequestDto(), "createDto");
+        bindingResult.addError(new FieldError("createDto", "name", "Device name is required"));
+        bindingResult.addError(new FieldError("createDto", "brand", "Device brand is required"));
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("setUp"), -1);
+        invalidArgument = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public byte[] deviceNotFound() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleDeviceNotFound(notFound).getBody());
+    }
+
+    @Benchmark
+    public byte[] deviceValidation() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleDeviceValidation(validation).getBody());
+    }
+
+    @Benchmark
+    public byte[] invalidArgument() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleValidationExceptions(invalidArgument).getBody());
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.interview.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.entity.DeviceEntity;
+import com.interview.enums.DeviceState;
+import com.interview.repository.DeviceRepository;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * In-memory {@link DeviceRepository} for benchmarks without a database. Implements the methods used by
+ * {@link com.interview.service.impl.DeviceServiceImpl} for single devices and page listings; sorting is always
+ * by id. Any other method throws {@link UnsupportedOperationException}.
+ */
+final class InMemoryDeviceRepository implements InvocationHandler {
+
+    // ordered by id, so listings need no sort
+    private final Map<Long, DeviceEntity> devices = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private InMemoryDeviceRepository() {
+    }
+
+    static DeviceRepository create() {
+        return (DeviceRepository) Proxy.newProxyInstance(DeviceRepository.class.getClassLoader(),
+                new Class<?>[] {DeviceRepository.class}, new InMemoryDeviceRepository());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "save" -> save((DeviceEntity) args[0]);
+            case "saveAll" -> {
+                List<DeviceEntity> saved = new ArrayList<>();
+                ((Iterable<DeviceEntity>) args[0]).forEach(entity -> saved.add(save(entity)));
+                yield saved;
+            }
+            case "flush" -> null;
+            case "findById" -> Optional.ofNullable(devices.get((Long) args[0]));
+            case "findResponseById" -> Optional.ofNullable(devices.get((Long) args[0])).map(InMemoryDeviceRepository::toResponse);
+            case "deleteById" -> devices.remove((Long) args[0]);
+            case "deleteUnlessInUse" -> Optional.ofNullable(devices.get((Long) args[0]))
+                    .filter(device -> device.getState() != DeviceState.IN_USE)
+                    .map(device -> toResponse(devices.remove(device.getId())));
+            case "existsById" -> devices.containsKey((Long) args[0]);
+            case "findList" -> find(device -> true, (Pageable) args[0]);
+            case "findListByState" -> find(device -> device.getState() == args[0], (Pageable) args[1]);
+            case "findListByBrandIgnoreCase" -> find(device -> device.getBrand().equalsIgnoreCase((String) args[0]),
+                    (Pageable) args[1]);
+            case "findListByBrandIgnoreCaseAndState" -> find(device -> device.getBrand().equalsIgnoreCase((String) args[0])
+                    && device.getState() == args[1], (Pageable) args[2]);
+            case "count" -> (long) devices.size();
+            case "countByBrandAndState" -> List.of();
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryDeviceRepository";
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+
+    private DeviceEntity save(DeviceEntity entity) {
+        if (entity.getId() == null) {
+            entity.setId(sequence.incrementAndGet());
+            entity.setVersion(0L);
+        } else {
+            entity.setVersion(entity.getVersion() + 1);
+        }
+        devices.put(entity.getId(), entity);
+        return entity;
+    }
+
+    private List<DeviceResponseDto> find(Predicate<DeviceEntity> filter, Pageable pageable) {
+        return devices.values().stream()
+                .filter(filter)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(InMemoryDeviceRepository::toResponse)
+                .toList();
+    }
+
+    private static DeviceResponseDto toResponse(DeviceEntity entity) {
+        return new DeviceResponseDto(entity.getId(), entity.getName(), entity.getBrand(), entity.getState(),
+                entity.getCreationTime(), entity.getVersion());
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.interview.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Compares request handling on platform threads with virtual threads ({@code spring.threads.virtual.enabled})
+ * under a burst of concurrent requests, 80% reads by id and 20% state updates, against a small connection pool.
+ * Every operation sends one burst and waits for all responses; failed (non-2xx) responses are counted.
+ * The device cache is disabled, so every request reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final int DEVICES = 10_000;
+    private static final int POOL_SIZE = 10;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"200", "1000"})
+    private int concurrency;
+
+    private BenchmarkDatabase database;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private ExecutorService clientExecutor;
+    private String baseUrl;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start();
+        context = database.startWebApplication(Map.of(
+                "spring.threads.virtual.enabled", virtualThreads,
+                "spring.datasource.hikari.maximum-pool-size", POOL_SIZE,
+                "device.cache.enabled", false));
+        BenchmarkDatabase.seed(context, DEVICES);
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/devices/";
+        ids = context.getBean(JdbcTemplate.class).queryForList("SELECT id FROM device", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        clientExecutor.close();
+        context.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void mixedBurst(Responses responses) throws Exception {
+        List<Future<HttpResponse<Void>>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(client.sendAsync(request(), HttpResponse.BodyHandlers.discarding()));
+        }
+        for (Future<HttpResponse<Void>> future : futures) {
+            int status = future.get().statusCode();
+            if (status >= 200 && status < 300) {
+                responses.succeeded++;
+            } else {
+                responses.failed++;
+            }
+        }
+    }
+
+    private HttpRequest request() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        URI uri = URI.create(baseUrl + ids[random.nextInt(ids.length)]);
+        if (random.nextInt(5) > 0) {
+            return HttpRequest.newBuilder(uri).GET().build();
+        }
+        // a state change is allowed for every device, so updates do not fail on business rules
+        String state = random.nextBoolean() ? "AVAILABLE" : "INACTIVE";
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"state\":\"" + state + "\"}"))
+                .build();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Responses {
+
+        public long succeeded;
+        public long failed;
+
+    }
+
+}
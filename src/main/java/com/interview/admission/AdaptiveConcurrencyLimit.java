@@ -0,0 +1,139 @@
+package com.interview.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Concurrency limit that adapts to the latency gradient of the requests. A request is admitted while fewer requests
+ * than the limit are in flight. Every completed request is a sample of two moving averages of the latency: a short
+ * one over the last few requests and a long one that is the baseline of the service. While the short average stays
+ * within {@code tolerance} times the baseline the limit grows by about the square root of the limit, once the short
+ * average rises above it the limit shrinks in proportion, down to half per step. A request that was dropped because
+ * the service or the database could not keep up shrinks the limit by 10%. The limit does not grow while less than half of it is in use, and stays between its
+ * minimum and maximum, so it is calibrated by the latency of the host itself rather than by a fixed threshold.
+ * The limit, the in-flight requests and the rejections are published as the {@code device.admission.limit},
+ * {@code device.admission.inflight} and {@code device.admission.rejected} metrics with the {@code type} tag.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    static final double BACKOFF_RATIO = 0.9;
+    // samples per moving average and weight of a new limit against the current one
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 500;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+    private final Object lock = new Object();
+
+    // written under lock, read without it when admitting
+    private volatile double limit;
+    // guarded by lock, in nanoseconds
+    private double shortLatency;
+    private double longLatency;
+
+    public AdaptiveConcurrencyLimit(String type, int minLimit, int initialLimit, int maxLimit, double tolerance,
+                                    MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = clamp(initialLimit);
+        Gauge.builder("device.admission.limit", this, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("device.admission.inflight", inFlight, AtomicInteger::get)
+                .description("Requests in flight")
+                .tag("type", type)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("device.admission.rejected")
+                .description("Requests rejected by the concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admit a request if the limit allows it. An admitted request must be completed with {@link #release(long, boolean)}
+     * or {@link #cancel()}.
+     * @return - Whether the request is admitted.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Complete an admitted request and adjust the limit to its outcome.
+     * @param latencyNanos - Duration of the request.
+     * @param failed - Whether the request was dropped because the service or the database could not keep up.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        // the requests in flight while this one completed, itself included
+        int current = inFlight.getAndDecrement();
+        synchronized (lock) {
+            if (failed) {
+                limit = clamp(limit * BACKOFF_RATIO);
+                return;
+            }
+
+            shortLatency = average(shortLatency, latencyNanos, SHORT_WINDOW);
+            longLatency = average(longLatency, latencyNanos, LONG_WINDOW);
+            if (longLatency > 2 * shortLatency) {
+                // the baseline absorbed a slowdown that is over, let it recover faster
+                longLatency *= 0.95;
+            }
+
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longLatency / shortLatency));
+            double target = limit * gradient + Math.sqrt(limit);
+            if (target > limit && current * 2 < limit) {
+                // the limit only grows while it is actually used
+                return;
+            }
+            limit = clamp(limit * (1 - SMOOTHING) + target * SMOOTHING);
+        }
+    }
+
+    /**
+     * Complete an admitted request without taking it as a sample.
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return - Current concurrency limit.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return - Number of requests in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    private static double average(double average, long sample, int window) {
+        return average == 0 ? sample : average + (sample - average) / window;
+    }
+
+}
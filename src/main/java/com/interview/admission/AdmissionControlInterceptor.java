@@ -0,0 +1,87 @@
+package com.interview.admission;
+
+import java.time.Duration;
+
+import com.interview.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Admits requests through separate {@link AdaptiveConcurrencyLimit}s for reads ({@code GET} and {@code HEAD}) and
+ * writes. A request over the limit is rejected with {@link ServiceOverloadedException} before its handler runs, so it
+ * fails fast instead of queueing for a database connection. Only requests that failed with an unhandled exception, or
+ * that the exception handler {@link #markDropped marked as dropped} because the database was unavailable or the
+ * request timed out, cut the limit. Other responses are sampled like any other request, whatever their status, so
+ * a {@code 503} that asks clients to retry for another reason, such as totals that are still loading, does not shrink
+ * the limit.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String DROPPED_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".dropped";
+
+    private static final String LIMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".limit";
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+
+    public AdmissionControlInterceptor(AdaptiveConcurrencyLimit readLimit, AdaptiveConcurrencyLimit writeLimit) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+    }
+
+    /**
+     * Mark a request as dropped because the service or the database could not keep up, so it cuts the limit that
+     * admitted it.
+     * @param request - Current request.
+     */
+    public static void markDropped(HttpServletRequest request) {
+        request.setAttribute(DROPPED_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AdaptiveConcurrencyLimit limit = isRead(request) ? readLimit : writeLimit;
+        if (!limit.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many concurrent requests, please retry", RETRY_AFTER);
+        }
+
+        request.setAttribute(LIMIT_ATTRIBUTE, limit);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // the async dispatch that completes the request is admitted again
+        AdaptiveConcurrencyLimit limit = takeLimit(request);
+        if (limit != null) {
+            limit.cancel();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        AdaptiveConcurrencyLimit limit = takeLimit(request);
+        if (limit != null) {
+            long latencyNanos = System.nanoTime() - (long) request.getAttribute(START_ATTRIBUTE);
+            limit.release(latencyNanos, ex != null || request.getAttribute(DROPPED_ATTRIBUTE) != null);
+        }
+    }
+
+    private static AdaptiveConcurrencyLimit takeLimit(HttpServletRequest request) {
+        AdaptiveConcurrencyLimit limit = (AdaptiveConcurrencyLimit) request.getAttribute(LIMIT_ATTRIBUTE);
+        request.removeAttribute(LIMIT_ATTRIBUTE);
+        return limit;
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+}
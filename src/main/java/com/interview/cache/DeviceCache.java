@@ -0,0 +1,169 @@
+package com.interview.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceChangeType;
+import com.interview.event.DeviceChangedEvent;
+import com.interview.outbox.DeviceInvalidationListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Size and TTL bounded in-process cache of devices by id. Entries are written through or removed only after
+ * the transaction of a change commits, so uncommitted data is never visible to readers. An entry is only replaced
+ * by a newer version of the device, so neither a value loaded by a reader nor a change whose commit listener runs
+ * late overwrites a more recent change. A device loaded while it is invalidated, for example by a delete that commits
+ * after the load read it, is returned but not cached, as deletes leave no version behind to compare with. This holds
+ * for every load in progress, including a caller loading on its own after waiting too long for a concurrent load.
+ * Hit, miss and eviction counters are published as {@code cache.*} metrics with the {@code cache=devices} tag. Changes committed by other instances evict the
+ * entry when they are delivered through the outbox. Concurrent loads of the same device on a miss are coalesced
+ * into one, also while the cache is disabled, and counted as {@code device.loads} metrics.
+ */
+@Component
+public class DeviceCache implements DeviceInvalidationListener {
+
+    static final String CACHE_NAME = "devices";
+    static final String LOADS_METRIC = "device.loads";
+
+    private final Cache<Long, DeviceResponseDto> cache;
+    private final SingleFlight<Long, DeviceResponseDto> loads;
+    // flags of the loads in progress by device id, all set when the device is invalidated before a load caches it
+    private final ConcurrentMap<Long, Set<AtomicBoolean>> pendingLoads = new ConcurrentHashMap<>();
+
+    public DeviceCache(@Value("${device.cache.enabled:true}") boolean enabled,
+                       @Value("${device.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${device.cache.ttl:PT1M}") Duration ttl,
+                       @Value("${device.cache.coalesce-timeout:PT2S}") Duration coalesceTimeout,
+                       MeterRegistry meterRegistry) {
+        this.loads = new SingleFlight<>(LOADS_METRIC, coalesceTimeout, meterRegistry);
+        if (enabled) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Get a cached device.
+     * @param id - Device ID.
+     * @return - Cached device, or empty if it is not cached or the cache is disabled.
+     */
+    public Optional<DeviceResponseDto> get(Long id) {
+        return cache == null ? Optional.empty() : Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    /**
+     * Load a device that is not cached and cache it. Concurrent loads of the same device share a single call of
+     * the loader.
+     * @param id - Device ID.
+     * @param loader - Function to load the device from the database.
+     * @return - Loaded device.
+     */
+    public DeviceResponseDto load(Long id, Function<Long, DeviceResponseDto> loader) {
+        return loads.load(id, key -> {
+            // a caller that timed out waiting for the first load loads the same device at the same time
+            AtomicBoolean invalidated = new AtomicBoolean();
+            pendingLoads.compute(key, (pendingId, flags) -> {
+                Set<AtomicBoolean> pending = flags == null ? ConcurrentHashMap.newKeySet() : flags;
+                pending.add(invalidated);
+                return pending;
+            });
+            try {
+                DeviceResponseDto device = loader.apply(key);
+                putLoaded(device, invalidated);
+                return device;
+            } finally {
+                pendingLoads.computeIfPresent(key, (pendingId, flags) -> {
+                    flags.remove(invalidated);
+                    return flags.isEmpty() ? null : flags;
+                });
+            }
+        });
+    }
+
+    /**
+     * Cache a device loaded from the database, unless a committed change has cached it meanwhile.
+     * @param device - Device DTO object.
+     */
+    public void putLoaded(DeviceResponseDto device) {
+        putLoaded(device, new AtomicBoolean());
+    }
+
+    private void putLoaded(DeviceResponseDto device, AtomicBoolean invalidated) {
+        if (cache != null) {
+            // checked under the lock of the entry, so an invalidation either flags the load first or removes the entry
+            // after it is cached
+            cache.asMap().compute(device.getId(), (id, cached) -> {
+                if (invalidated.get()) {
+                    return cached;
+                }
+                return cached == null ? device : newer(cached, device);
+            });
+        }
+    }
+
+    @TransactionalEventListener
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        if (cache == null) {
+            return;
+        }
+
+        if (event.getType() == DeviceChangeType.DELETED) {
+            evict(event.getDeviceId());
+        } else {
+            cache.asMap().merge(event.getDeviceId(), event.getCurrent(), DeviceCache::newer);
+        }
+    }
+
+    @Override
+    public void invalidate(Long deviceId, DeviceChangeType type) {
+        if (cache != null) {
+            evict(deviceId);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        if (cache != null) {
+            // flagged before clearing, so a load cannot cache its device after the clear
+            pendingLoads.values().forEach(DeviceCache::flag);
+            cache.invalidateAll();
+        }
+    }
+
+    private void evict(Long deviceId) {
+        cache.asMap().compute(deviceId, (id, cached) -> {
+            flag(pendingLoads.getOrDefault(id, Set.of()));
+            return null;
+        });
+    }
+
+    private static void flag(Set<AtomicBoolean> pending) {
+        pending.forEach(invalidated -> invalidated.set(true));
+    }
+
+    private static DeviceResponseDto newer(DeviceResponseDto cached, DeviceResponseDto device) {
+        if (cached.getVersion() == null || device.getVersion() == null) {
+            return cached;
+        }
+        return device.getVersion() > cached.getVersion() ? device : cached;
+    }
+
+}
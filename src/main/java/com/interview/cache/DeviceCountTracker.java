@@ -0,0 +1,278 @@
+package com.interview.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import com.interview.dto.DeviceBrandStatsDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceStatsResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.event.DeviceChangedEvent;
+import com.interview.replica.ReplicaRoutingContext;
+import com.interview.repository.DeviceCount;
+import com.interview.repository.DeviceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps device totals per (lower-cased brand, state) in memory, so listings and statistics do not need a count query.
+ * Totals are loaded when the application is ready, updated from committed {@link DeviceChangedEvent}s and
+ * periodically reconciled against the database to correct drift from writes of other instances.
+ * Reconciling never replaces the live counters, since changes committed while the database is counted would be lost
+ * or counted twice. A total is only corrected, by adding the difference, once two checks in a row found it off by
+ * the same amount; a change that is counted by the database but not yet applied, or the other way around, only
+ * shows up in a single check.
+ * Brands are kept in a sorted dictionary with one counter per state, indexed by the state ordinal, plus counters per
+ * state over all brands, so every lookup reads at most a map entry and a few array elements, and brands with a
+ * common prefix are a range of the dictionary.
+ * Totals are always tracked, since statistics and brand suggestions are only served from them;
+ * {@code device.counts.enabled} decides whether page totals are taken from them as well.
+ */
+@Component
+public class DeviceCountTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceCountTracker.class);
+
+    private static final DeviceState[] STATES = DeviceState.values();
+
+    private final DeviceRepository deviceRepository;
+    private final boolean pageTotalsEnabled;
+
+    private volatile Facets facets;
+    // totals found off on the previous check, a total is only corrected when it is off by the same amount again
+    private Set<Drift> previousDrifts = Set.of();
+
+    public DeviceCountTracker(DeviceRepository deviceRepository,
+                              @Value("${device.counts.enabled:true}") boolean pageTotalsEnabled) {
+        this.deviceRepository = deviceRepository;
+        this.pageTotalsEnabled = pageTotalsEnabled;
+    }
+
+    /**
+     * Get the tracked number of devices for a page total.
+     * @param brand - Brand name, case-insensitive. Can be null.
+     * @param state - Device state. Can be null.
+     * @return - Tracked total, or empty if totals are not loaded yet or page totals are not served from them.
+     */
+    public OptionalLong count(String brand, DeviceState state) {
+        Facets current = facets;
+        if (current == null || !pageTotalsEnabled) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(current.count(brand, state));
+    }
+
+    /**
+     * Get the tracked number of devices per state and per brand.
+     * @return - Tracked statistics, or empty if totals are not loaded yet.
+     */
+    public Optional<DeviceStatsResponseDto> stats() {
+        return Optional.ofNullable(facets).map(Facets::toStats);
+    }
+
+    /**
+     * Get the most used brands starting with a prefix.
+     * @param prefix - Brand prefix, case-insensitive.
+     * @param limit - Maximum number of brands.
+     * @return - Tracked brands with devices, the most used first, or empty if totals are not loaded yet.
+     */
+    public Optional<List<DeviceBrandStatsDto>> suggestBrands(String prefix, int limit) {
+        return Optional.ofNullable(facets).map(current -> current.suggestBrands(prefix, limit));
+    }
+
+    /**
+     * Reload all totals from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${device.counts.reconcile-interval:PT5M}",
+            fixedDelayString = "${device.counts.reconcile-interval:PT5M}")
+    public void reconcile() {
+        DeviceCountVerification verification = verify(true);
+        log.debug("Reconciled device totals, {} devices", verification.total());
+    }
+
+    @TransactionalEventListener
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        Facets current = facets;
+        if (current == null) {
+            return;
+        }
+
+        DeviceResponseDto previous = event.getPrevious();
+        if (previous != null) {
+            current.add(previous.getBrand(), previous.getState(), -1);
+        }
+        DeviceResponseDto updated = event.getCurrent();
+        if (updated != null) {
+            current.add(updated.getBrand(), updated.getState(), 1);
+        }
+    }
+
+    /**
+     * Compare the tracked totals with the database. Changes committed while the check runs show up as mismatches
+     * that are gone on the next check, so only totals that are off by the same amount on two checks in a row are
+     * corrected. Totals that are not loaded yet are loaded instead.
+     * @param correct - Whether to correct the tracked totals found off on the previous check as well.
+     * @return - Totals that did not match, empty if totals were not loaded yet.
+     */
+    public synchronized DeviceCountVerification verify(boolean correct) {
+        Facets current = facets;
+        // a lagging replica would report totals that miss recent changes
+        Facets actual = Facets.of(ReplicaRoutingContext.onPrimary(deviceRepository::countByBrandAndState));
+        if (current == null) {
+            if (correct) {
+                facets = actual;
+            }
+            return new DeviceCountVerification(false, actual.count(null, null), List.of());
+        }
+
+        List<DeviceCountVerification.Mismatch> mismatches = current.compare(actual);
+        if (correct) {
+            int corrected = 0;
+            for (DeviceCountVerification.Mismatch mismatch : mismatches) {
+                if (previousDrifts.contains(Drift.of(mismatch))) {
+                    current.add(mismatch.brand(), mismatch.state(), mismatch.actual() - mismatch.tracked());
+                    corrected++;
+                }
+            }
+            if (corrected > 0) {
+                log.info("Corrected {} drifted device totals", corrected);
+            }
+        }
+        previousDrifts = mismatches.stream().map(Drift::of).collect(Collectors.toSet());
+        return new DeviceCountVerification(true, actual.count(null, null), mismatches);
+    }
+
+    private record Drift(String brand, DeviceState state, long offset) {
+
+        static Drift of(DeviceCountVerification.Mismatch mismatch) {
+            return new Drift(mismatch.brand(), mismatch.state(), mismatch.tracked() - mismatch.actual());
+        }
+
+    }
+
+    private static final class Facets {
+
+        // counters of a brand are indexed by the state ordinal
+        private final NavigableMap<String, AtomicLongArray> brands = new ConcurrentSkipListMap<>();
+        private final AtomicLongArray states = new AtomicLongArray(STATES.length);
+
+        static Facets of(List<DeviceCount> counts) {
+            Facets facets = new Facets();
+            for (DeviceCount count : counts) {
+                facets.add(count.getBrand(), count.getState(), count.getTotal());
+            }
+            return facets;
+        }
+
+        void add(String brand, DeviceState state, long delta) {
+            brands.computeIfAbsent(key(brand), key -> new AtomicLongArray(STATES.length))
+                    .addAndGet(state.ordinal(), delta);
+            states.addAndGet(state.ordinal(), delta);
+        }
+
+        long count(String brand, DeviceState state) {
+            AtomicLongArray counters = brand == null ? states : brands.get(key(brand));
+            if (counters == null) {
+                return 0;
+            }
+            if (state != null) {
+                return Math.max(0, counters.get(state.ordinal()));
+            }
+            return sum(counters);
+        }
+
+        long counter(String brand, DeviceState state) {
+            AtomicLongArray counters = brands.get(key(brand));
+            return counters == null ? 0 : counters.get(state.ordinal());
+        }
+
+        DeviceStatsResponseDto toStats() {
+            // the dictionary iterates in brand order
+            List<DeviceBrandStatsDto> brandStats = new ArrayList<>();
+            brands.forEach((brand, counters) -> {
+                long total = sum(counters);
+                // brands stay in the dictionary after their last device is deleted
+                if (total > 0) {
+                    brandStats.add(new DeviceBrandStatsDto(brand, total, byState(counters)));
+                }
+            });
+            return new DeviceStatsResponseDto(sum(states), byState(states), brandStats);
+        }
+
+        List<DeviceBrandStatsDto> suggestBrands(String prefix, int limit) {
+            String start = key(prefix);
+            List<DeviceBrandStatsDto> matches = new ArrayList<>();
+            for (Map.Entry<String, AtomicLongArray> entry : brands.tailMap(start).entrySet()) {
+                if (!entry.getKey().startsWith(start)) {
+                    break;
+                }
+                long total = sum(entry.getValue());
+                if (total > 0) {
+                    matches.add(new DeviceBrandStatsDto(entry.getKey(), total, byState(entry.getValue())));
+                }
+            }
+            matches.sort(Comparator.comparingLong(DeviceBrandStatsDto::getTotal).reversed()
+                    .thenComparing(DeviceBrandStatsDto::getBrand));
+            return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+        }
+
+        List<DeviceCountVerification.Mismatch> compare(Facets actual) {
+            TreeSet<String> keys = new TreeSet<>(brands.keySet());
+            keys.addAll(actual.brands.keySet());
+
+            List<DeviceCountVerification.Mismatch> mismatches = new ArrayList<>();
+            for (String brand : keys) {
+                for (DeviceState state : STATES) {
+                    // compared without the floor at zero, so a correction restores the exact counter
+                    long tracked = counter(brand, state);
+                    long expected = actual.counter(brand, state);
+                    if (tracked != expected) {
+                        mismatches.add(new DeviceCountVerification.Mismatch(brand, state, tracked, expected));
+                    }
+                }
+            }
+            return mismatches;
+        }
+
+        private static Map<DeviceState, Long> byState(AtomicLongArray counters) {
+            Map<DeviceState, Long> byState = new EnumMap<>(DeviceState.class);
+            for (DeviceState state : STATES) {
+                byState.put(state, Math.max(0, counters.get(state.ordinal())));
+            }
+            return byState;
+        }
+
+        private static long sum(AtomicLongArray counters) {
+            long total = 0;
+            for (int i = 0; i < counters.length(); i++) {
+                total += counters.get(i);
+            }
+            return Math.max(0, total);
+        }
+
+        private static String key(String brand) {
+            return brand.toLowerCase(Locale.ROOT);
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.interview.cache;
+
+import java.util.List;
+
+import com.interview.enums.DeviceState;
+
+/**
+ * Result of comparing the tracked device totals with the database.
+ * @param tracked - Whether totals were tracked when the check ran. Nothing is compared otherwise.
+ * @param total - Number of devices in the database.
+ * @param mismatches - Brand and state combinations with a different tracked total.
+ */
+public record DeviceCountVerification(boolean tracked, long total, List<Mismatch> mismatches) {
+
+    public boolean isConsistent() {
+        return mismatches.isEmpty();
+    }
+
+    /**
+     * Tracked and actual number of devices of a lower-cased brand in a state.
+     */
+    public record Mismatch(String brand, DeviceState state, long tracked, long actual) {
+    }
+
+}
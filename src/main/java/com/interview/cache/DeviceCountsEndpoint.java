@@ -0,0 +1,33 @@
+package com.interview.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to check the tracked device totals against the database and to correct them on demand.
+ * Like the scheduled reconciliation, a total is only corrected once two checks in a row found it off by the same
+ * amount.
+ */
+@Component
+@Endpoint(id = "devicecounts")
+public class DeviceCountsEndpoint {
+
+    private final DeviceCountTracker deviceCountTracker;
+
+    public DeviceCountsEndpoint(DeviceCountTracker deviceCountTracker) {
+        this.deviceCountTracker = deviceCountTracker;
+    }
+
+    @ReadOperation
+    public DeviceCountVerification verify() {
+        return deviceCountTracker.verify(false);
+    }
+
+    @WriteOperation
+    public DeviceCountVerification reconcile() {
+        return deviceCountTracker.verify(true);
+    }
+
+}
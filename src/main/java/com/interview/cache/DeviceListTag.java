@@ -0,0 +1,79 @@
+package com.interview.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.interview.enums.DeviceChangeType;
+import com.interview.event.DeviceChangedEvent;
+import com.interview.outbox.DeviceInvalidationListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tags device listings for conditional requests without reading any device. The tag is a token generated at startup
+ * followed by the number of device changes this instance has seen, committed locally or delivered by the
+ * {@link com.interview.outbox.DeviceOutbox}, so it changes with every device change. Tags of other instances and of
+ * earlier runs never match, which costs a full response.
+ * <p>
+ * A change committed by another instance only changes the tag when the outbox relay delivers it, which takes up to
+ * {@code device.outbox.poll-interval} plus the time the relay waits for other scheduled tasks. Until then this
+ * instance can still answer {@code 304} for a listing that misses the change, so listings are stale for at most that
+ * delay. With the outbox disabled, changes of other instances never reach the tag, so tags are only exact on a single
+ * instance.
+ * <p>
+ * Listings read from replicas may miss a change for up to the allowed replication lag, so no tag is handed out
+ * within that time after a change; a page read in between could otherwise be revalidated until the next change.
+ */
+@Component
+public class DeviceListTag implements DeviceInvalidationListener {
+
+    private final String token = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final AtomicLong changes = new AtomicLong();
+    private final long quietPeriodNanos;
+
+    private volatile long lastChangeNanos;
+
+    public DeviceListTag(@Value("${device.replicas.urls:}") List<String> replicaUrls,
+                         @Value("${device.replicas.max-lag:PT10S}") Duration maxLag) {
+        this.quietPeriodNanos = replicaUrls.isEmpty() ? 0 : maxLag.toNanos();
+        this.lastChangeNanos = System.nanoTime() - quietPeriodNanos;
+    }
+
+    /**
+     * Get the tag of all device listings.
+     * @return - Current tag, or empty if a recent change may not be visible to listings yet.
+     */
+    public Optional<String> current() {
+        // read before the time, so a change in between cannot be missed by a tag that passes the check
+        long count = changes.get();
+        if (System.nanoTime() - lastChangeNanos < quietPeriodNanos) {
+            return Optional.empty();
+        }
+        return Optional.of(token + "-" + Long.toHexString(count));
+    }
+
+    @TransactionalEventListener
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        changed();
+    }
+
+    @Override
+    public void invalidate(Long deviceId, DeviceChangeType type) {
+        changed();
+    }
+
+    @Override
+    public void invalidateAll() {
+        changed();
+    }
+
+    private void changed() {
+        lastChangeNanos = System.nanoTime();
+        changes.incrementAndGet();
+    }
+
+}
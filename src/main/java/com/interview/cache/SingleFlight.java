@@ -0,0 +1,94 @@
+package com.interview.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent loads of the same key. The first caller runs the load, callers arriving while it is in flight
+ * wait for its result or exception instead of loading again. They wait at most {@code maxWait} and then load on their
+ * own, so a slow load does not hold them indefinitely. Waiting parks the calling thread without holding a monitor,
+ * so a waiting virtual thread releases its carrier.
+ * Calls are counted by the given metric with the {@code result} tag: {@code loaded}, {@code coalesced} or
+ * {@code timeout}.
+ * @param <K> - Key type.
+ * @param <V> - Value type.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final Counter loaded;
+    private final Counter coalesced;
+    private final Counter timedOut;
+
+    public SingleFlight(String metricName, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.loaded = counter(metricName, "loaded", meterRegistry);
+        this.coalesced = counter(metricName, "coalesced", meterRegistry);
+        this.timedOut = counter(metricName, "timeout", meterRegistry);
+    }
+
+    /**
+     * Load a value, or wait for a concurrent load of the same key.
+     * @param key - Key to load.
+     * @param loader - Function to load the value.
+     * @return - Loaded value.
+     */
+    public V load(K key, Function<K, V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return await(key, leader, loader);
+        }
+
+        loaded.increment();
+        try {
+            V value = loader.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> flight, Function<K, V> loader) {
+        try {
+            V value = flight.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return value;
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            // the exception of the load is shared by all waiting callers
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            return loader.apply(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a concurrent load", e);
+        }
+    }
+
+    private static Counter counter(String metricName, String result, MeterRegistry meterRegistry) {
+        return Counter.builder(metricName)
+                .description("Loads started, coalesced with a concurrent load or timed out waiting for it")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+}
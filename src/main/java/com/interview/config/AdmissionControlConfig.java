@@ -0,0 +1,44 @@
+package com.interview.config;
+
+import com.interview.admission.AdaptiveConcurrencyLimit;
+import com.interview.admission.AdmissionControlInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts adaptive concurrency limits in front of the device endpoints unless {@code device.admission.enabled} is false.
+ * Reads and writes have their own limits, so slow writes do not shed reads. Streamed exports, the change feed and
+ * batch imports are long-running by design and are not limited.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "device.admission.enabled", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor interceptor;
+
+    public AdmissionControlConfig(MeterRegistry meterRegistry,
+                                  @Value("${device.admission.min-limit:5}") int minLimit,
+                                  @Value("${device.admission.latency-tolerance:2.0}") double latencyTolerance,
+                                  @Value("${device.admission.read.initial-limit:100}") int readInitialLimit,
+                                  @Value("${device.admission.read.max-limit:1000}") int readMaxLimit,
+                                  @Value("${device.admission.write.initial-limit:50}") int writeInitialLimit,
+                                  @Value("${device.admission.write.max-limit:500}") int writeMaxLimit) {
+        this.interceptor = new AdmissionControlInterceptor(
+                new AdaptiveConcurrencyLimit("read", minLimit, readInitialLimit, readMaxLimit, latencyTolerance,
+                        meterRegistry),
+                new AdaptiveConcurrencyLimit("write", minLimit, writeInitialLimit, writeMaxLimit, latencyTolerance,
+                        meterRegistry));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/v1/devices/**", "/api/v1/devices")
+                .excludePathPatterns("/api/v1/devices/export", "/api/v1/devices/changes", "/api/v1/devices/batch");
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.interview.config;
+
+import java.time.Duration;
+
+import com.interview.replica.ReadYourWritesInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Sends the reads of a client to the primary for {@code device.replicas.read-your-writes.window} after each of its
+ * writes when {@code device.replicas.read-your-writes.enabled} is set. Cookies are signed with
+ * {@code device.replicas.read-your-writes.secret}, which all instances behind a load balancer need to share.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ReadYourWritesConfig implements WebMvcConfigurer {
+
+    private static final String DEVICES_PATH = "/api/v1/devices";
+
+    private final boolean enabled;
+    private final Duration window;
+    private final String secret;
+
+    public ReadYourWritesConfig(@Value("${device.replicas.read-your-writes.enabled:false}") boolean enabled,
+                                @Value("${device.replicas.read-your-writes.window:PT5S}") Duration window,
+                                @Value("${device.replicas.read-your-writes.secret:}") String secret) {
+        this.enabled = enabled;
+        this.window = window;
+        this.secret = secret;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new ReadYourWritesInterceptor(window, DEVICES_PATH, secret))
+                    .addPathPatterns(DEVICES_PATH, DEVICES_PATH + "/**");
+        }
+    }
+
+}
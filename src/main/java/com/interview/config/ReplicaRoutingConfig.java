@@ -0,0 +1,81 @@
+package com.interview.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.interview.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Routes read-only transactions to the replicas listed in {@code device.replicas.urls} and everything else to the
+ * primary configured by {@code spring.datasource}. Without replicas every connection comes from the primary. Replica
+ * pools use the credentials and pool size of the primary unless configured otherwise. With virtual threads each
+ * replica pool is guarded by a {@link ConnectionLimitingDataSource} like the primary, waiting at most the replica
+ * connection timeout before the read falls back to the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource, DataSourceProperties properties,
+            MeterRegistry meterRegistry, Environment environment,
+            @Value("${device.replicas.urls:}") List<String> urls,
+            @Value("${device.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${device.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${device.replicas.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${device.replicas.connection-timeout:PT2S}") Duration connectionTimeout,
+            @Value("${device.replicas.max-lag:PT10S}") Duration maxLag) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(poolSize);
+            // an unreachable replica is skipped quickly instead of holding up reads for the default 30 seconds
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // the pool starts even if the replica is down, the health check takes it out of rotation
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replica.setMetricRegistry(meterRegistry);
+            // the replica pools are not beans, so the post-processor of VirtualThreadConfig does not guard them
+            replicas.add(Threading.VIRTUAL.isActive(environment)
+                    ? new ConnectionLimitingDataSource(replica, poolSize, connectionTimeout)
+                    : replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+}
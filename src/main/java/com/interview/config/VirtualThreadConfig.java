@@ -0,0 +1,38 @@
+package com.interview.config;
+
+import java.time.Duration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Active when requests run on virtual threads ({@code spring.threads.virtual.enabled}). Guards the Hikari pool
+ * with a {@link ConnectionLimitingDataSource} sized to the pool, so excess requests queue for a connection
+ * instead of failing on the pool connection timeout.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        Duration queueTimeout = environment.getProperty("device.jdbc.queue-timeout", Duration.class,
+                Duration.ofSeconds(60));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikariDataSource) {
+                    return new ConnectionLimitingDataSource(hikariDataSource, hikariDataSource.getMaximumPoolSize(),
+                            queueTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+}
@@ -1,11 +1,32 @@
 package com.interview.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import com.interview.config.BinaryFormatConfig;
+import com.interview.dto.DeviceBatchResponseDto;
+import com.interview.dto.DeviceBrandStatsDto;
+import com.interview.dto.DeviceBulkStateRequestDto;
+import com.interview.dto.DeviceBulkStateResponseDto;
+import com.interview.dto.DeviceChangeDto;
 import com.interview.dto.DeviceCreateRequestDto;
+import com.interview.dto.DevicePageResponseDto;
 import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceSliceResponseDto;
+import com.interview.dto.DeviceStatsResponseDto;
 import com.interview.dto.DeviceUpdateRequestDto;
 import com.interview.dto.ErrorResponseDto;
 import com.interview.enums.DeviceState;
+import com.interview.event.DeviceChangeFeed;
+import com.interview.exception.DeviceValidationException;
 import com.interview.service.DeviceService;
+import com.interview.service.impl.DeviceBatchImporter;
+import com.interview.service.impl.DeviceBulkStateUpdater;
+import com.interview.service.impl.DeviceExporter;
+import com.interview.service.impl.DeviceGroupCommitter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -14,49 +35,119 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+// JSON unless a binary format is requested explicitly
 @RequestMapping(path = "/api/v1/devices",
-        produces = MediaType.APPLICATION_JSON_VALUE)
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+                BinaryFormatConfig.APPLICATION_SMILE_VALUE})
 @Tag(name = "Device Management", description = "APIs for managing device resources")
 public class DeviceController {
 
+    // versions start at zero, so this never matches a device
+    private static final long NO_VERSION = -1L;
+
     private final DeviceService deviceService;
+    private final DeviceBatchImporter deviceBatchImporter;
+    private final DeviceExporter deviceExporter;
+    private final DeviceBulkStateUpdater deviceBulkStateUpdater;
+    private final DeviceChangeFeed deviceChangeFeed;
+    private final DeviceGroupCommitter deviceGroupCommitter;
+    private final ContentNegotiationManager contentNegotiationManager;
 
-    public DeviceController(DeviceService deviceService) {
+    public DeviceController(DeviceService deviceService, DeviceBatchImporter deviceBatchImporter,
+                            DeviceExporter deviceExporter, DeviceBulkStateUpdater deviceBulkStateUpdater,
+                            DeviceChangeFeed deviceChangeFeed, DeviceGroupCommitter deviceGroupCommitter,
+                            ContentNegotiationManager contentNegotiationManager) {
         this.deviceService = deviceService;
+        this.deviceBatchImporter = deviceBatchImporter;
+        this.deviceExporter = deviceExporter;
+        this.deviceBulkStateUpdater = deviceBulkStateUpdater;
+        this.deviceChangeFeed = deviceChangeFeed;
+        this.deviceGroupCommitter = deviceGroupCommitter;
+        this.contentNegotiationManager = contentNegotiationManager;
     }
 
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Create a new device", description = "Creates a new device resource")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Device created successfully",
                     content = {@Content(schema = @Schema(implementation = DeviceResponseDto.class))}),
             @ApiResponse(responseCode = "400", description = "Invalid input data",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))}),
+            @ApiResponse(responseCode = "503", description = "Too many devices waiting for a group commit",
                     content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))})
     })
     public ResponseEntity<DeviceResponseDto> createDevice(@Valid @RequestBody DeviceCreateRequestDto createDto) {
-        DeviceResponseDto response = deviceService.createDevice(createDto);
+        DeviceResponseDto response = deviceGroupCommitter.isEnabled()
+                ? deviceGroupCommitter.createDevice(createDto)
+                : deviceService.createDevice(createDto);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
-    @PutMapping(path = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create devices in batch",
+            description = "Creates devices from a JSON array. The array is processed as a stream and stored in batches, "
+                    + "the result of every item is reported in request order. At most device.batch.max-items items are "
+                    + "processed per request",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DeviceCreateRequestDto.class)))))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed",
+                    content = {@Content(schema = @Schema(implementation = DeviceBatchResponseDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Request body is not a JSON array",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))})
+    })
+    public ResponseEntity<DeviceBatchResponseDto> createDevices(InputStream body) throws IOException {
+        DeviceBatchResponseDto response = deviceBatchImporter.importDevices(body);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(path = "/batch/state", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Change state of devices in batch",
+            description = "Moves devices selected by ids or by a brand and/or state filter to the target state. "
+                    + "Devices are updated with set-based statements in chunks, each chunk in its own transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed",
+                    content = {@Content(schema = @Schema(implementation = DeviceBulkStateResponseDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid selection or target state",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))})
+    })
+    public ResponseEntity<DeviceBulkStateResponseDto> updateDeviceStates(
+            @Valid @RequestBody DeviceBulkStateRequestDto request) {
+        DeviceBulkStateResponseDto response = deviceBulkStateUpdater.updateStates(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping(path = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Update device", description = "Fully or partially updates an existing device")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Device updated successfully",
@@ -64,13 +155,23 @@ public class DeviceController {
             @ApiResponse(responseCode = "404", description = "Device not found",
                     content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))}),
             @ApiResponse(responseCode = "400", description = "Invalid update data",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))}),
+            @ApiResponse(responseCode = "409", description = "Device was changed concurrently",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))}),
+            @ApiResponse(responseCode = "412", description = "Device does not match the tag in If-Match",
                     content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))})
     })
     public ResponseEntity<DeviceResponseDto> updateDevice(
             @Parameter(description = "Device ID") @PathVariable Long id,
-            @RequestBody DeviceUpdateRequestDto updateDto) {
-        DeviceResponseDto response = deviceService.updateDevice(id, updateDto);
-        return ResponseEntity.ok(response);
+            @Parameter(description = "ETag of the device version to update")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody DeviceUpdateRequestDto updateDto,
+            @Parameter(hidden = true) NativeWebRequest webRequest) {
+        DeviceResponseDto response = deviceService.updateDevice(id, updateDto, expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(representationTag(String.valueOf(response.getVersion()), webRequest))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response);
     }
 
     @GetMapping("/{id}")
@@ -78,13 +179,19 @@ public class DeviceController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Device found",
                     content = {@Content(schema = @Schema(implementation = DeviceResponseDto.class))}),
+            @ApiResponse(responseCode = "304", description = "Device not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Device not found",
                     content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))})
     })
     public ResponseEntity<DeviceResponseDto> getDevice(
-            @Parameter(description = "Device ID") @PathVariable Long id) {
+            @Parameter(description = "Device ID") @PathVariable Long id,
+            @Parameter(hidden = true) NativeWebRequest webRequest) {
         DeviceResponseDto response = deviceService.getDeviceById(id);
-        return ResponseEntity.ok(response);
+        // a matching If-None-Match turns this into a 304 before the body is serialized
+        return ResponseEntity.ok()
+                .eTag(representationTag(String.valueOf(response.getVersion()), webRequest))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response);
     }
 
     @GetMapping
@@ -104,16 +211,139 @@ public class DeviceController {
             })
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Devices retrieved successfully",
-                    content = {@Content(array = @ArraySchema(schema = @Schema(implementation = DeviceResponseDto.class)))})
+                    content = {@Content(schema = @Schema(implementation = DevicePageResponseDto.class))}),
+            @ApiResponse(responseCode = "304", description = "No device changed since the tag in If-None-Match")
     })
-    public ResponseEntity<Page<DeviceResponseDto>> getDevices(
+    public ResponseEntity<DevicePageResponseDto> getDevices(
             @Parameter(description = "Filter by brand") @RequestParam(required = false) String brand,
             @Parameter(description = "Filter by state") @RequestParam(required = false) DeviceState state,
-            @ParameterObject Pageable pageable) {
-        Page<DeviceResponseDto> response = deviceService.getDevices(brand, state, pageable);
+            @Parameter(description = "Return an estimated total from database statistics for unfiltered listings")
+            @RequestParam(defaultValue = "false") boolean estimatedTotal,
+            @ParameterObject Pageable pageable,
+            @Parameter(hidden = true) NativeWebRequest webRequest) {
+        // the tag is taken before the page is read, so a change in between makes the next request read it again
+        Optional<String> tag = deviceService.getDevicesTag()
+                .map(value -> representationTag(value, webRequest));
+        if (tag.isPresent() && webRequest.checkNotModified(tag.get())) {
+            // the 304 is completed without a response entity, so the header is set directly
+            HttpServletResponse servletResponse = webRequest.getNativeResponse(HttpServletResponse.class);
+            if (servletResponse != null) {
+                servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+            return null;
+        }
+        Page<DeviceResponseDto> page = deviceService.getDevices(brand, state, pageable, estimatedTotal);
+        DevicePageResponseDto response = DevicePageResponseDto.of(page);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT);
+        tag.ifPresent(builder::eTag);
+        return builder.body(response);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get device statistics",
+            description = "Retrieves the number of devices per state and per brand. Brands are compared case-insensitively")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = {@Content(schema = @Schema(implementation = DeviceStatsResponseDto.class))}),
+            @ApiResponse(responseCode = "503", description = "Device totals are not loaded yet",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))})
+    })
+    public ResponseEntity<DeviceStatsResponseDto> getDeviceStats() {
+        DeviceStatsResponseDto response = deviceService.getDeviceStats();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/brands/suggest")
+    @Operation(summary = "Suggest brands",
+            description = "Retrieves the most used brands starting with a prefix, with their number of devices. "
+                    + "Brands are compared case-insensitively and returned lower-cased")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Brands retrieved successfully",
+                    content = {@Content(array = @ArraySchema(schema = @Schema(implementation = DeviceBrandStatsDto.class)))}),
+            @ApiResponse(responseCode = "400", description = "Invalid limit",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))}),
+            @ApiResponse(responseCode = "503", description = "Device totals are not loaded yet",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))})
+    })
+    public ResponseEntity<List<DeviceBrandStatsDto>> suggestBrands(
+            @Parameter(description = "Brand prefix") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of brands") @RequestParam(defaultValue = "10") int limit) {
+        List<DeviceBrandStatsDto> response = deviceService.suggestBrands(prefix, limit);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll devices",
+            description = "Retrieves devices with optional filtering using cursor pagination. "
+                    + "Pass the returned nextCursor to fetch the next slice. No total count is calculated",
+            parameters = {
+                    @Parameter(
+                            name = "sort",
+                            description = "Sorting criteria in the format: property,(asc|desc). "
+                                    + "Must not change while paginating with a cursor",
+                            schema = @Schema(
+                                    type = "string",
+                                    allowableValues = {"id,asc", "id,desc",
+                                            "name,asc", "name,desc",
+                                            "brand,asc", "brand,desc",
+                                            "creationTime,asc", "creationTime,desc"}
+                            )
+                    )
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devices retrieved successfully",
+                    content = {@Content(schema = @Schema(implementation = DeviceSliceResponseDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or size",
+                    content = {@Content(schema = @Schema(implementation = ErrorResponseDto.class))})
+    })
+    public ResponseEntity<DeviceSliceResponseDto> scrollDevices(
+            @Parameter(description = "Filter by brand") @RequestParam(required = false) String brand,
+            @Parameter(description = "Filter by state") @RequestParam(required = false) DeviceState state,
+            @Parameter(description = "Cursor from the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(hidden = true) Sort sort) {
+        DeviceSliceResponseDto response = deviceService.scrollDevices(brand, state, cursor, size, sort);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(path = "/export", produces = DeviceExporter.NDJSON_VALUE)
+    @Operation(summary = "Export devices",
+            description = "Streams all devices matching the optional filters as newline-delimited JSON, ordered by id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devices exported successfully",
+                    content = {@Content(mediaType = DeviceExporter.NDJSON_VALUE,
+                            schema = @Schema(implementation = DeviceResponseDto.class))})
+    })
+    public ResponseEntity<StreamingResponseBody> exportDevices(
+            @Parameter(description = "Filter by brand") @RequestParam(required = false) String brand,
+            @Parameter(description = "Filter by state") @RequestParam(required = false) DeviceState state) {
+        StreamingResponseBody body = out -> deviceExporter.exportDevices(brand, state, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(DeviceExporter.NDJSON_VALUE))
+                .body(body);
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to device changes",
+            description = "Streams committed device changes matching the optional filters as Server-Sent Events. "
+                    + "Every change event carries an id to resume from with Last-Event-ID. A reset event is sent "
+                    + "instead of changes that are no longer buffered or when the id was issued by another instance or "
+                    + "before a restart, the devices should be read again after it. Changes committed on other "
+                    + "instances carry no device and are sent whatever the filters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Change stream",
+                    content = {@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = DeviceChangeDto.class))})
+    })
+    public SseEmitter subscribeToChanges(
+            @Parameter(description = "Filter by brand") @RequestParam(required = false) String brand,
+            @Parameter(description = "Filter by state") @RequestParam(required = false) DeviceState state,
+            @Parameter(description = "Id of the last received event")
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return deviceChangeFeed.subscribe(brand, state, lastEventId);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete device", description = "Deletes a device by its ID")
     @ApiResponses(value = {
@@ -129,4 +359,93 @@ public class DeviceController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Get the entity tag of a value in the representation negotiated for a request. Every format has a tag of its
+     * own, so caches and conditional requests never take a binary body for the JSON one or the other way round.
+     * @param value - Version of the resource.
+     * @param webRequest - Current request.
+     * @return - Entity tag value without quotes.
+     */
+    private String representationTag(String value, NativeWebRequest webRequest) {
+        return value + "-" + representation(webRequest).suffix;
+    }
+
+    /**
+     * Choose the representation the message converters will write: the first produced format that the most
+     * preferred accepted media type is compatible with.
+     */
+    private Representation representation(NativeWebRequest webRequest) {
+        try {
+            for (MediaType accepted : contentNegotiationManager.resolveMediaTypes(webRequest)) {
+                for (Representation representation : Representation.values()) {
+                    if (accepted.isCompatibleWith(representation.mediaType)) {
+                        return representation;
+                    }
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // the response is rejected with 406 when it is written, the tag is never sent
+        }
+        return Representation.JSON;
+    }
+
+    /**
+     * Get the device version required by an If-Match header.
+     * @param ifMatch - If-Match header value. Can be null.
+     * @return - Expected version, or null if any version matches.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+
+        List<String> tags = Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .toList();
+        if (tags.contains("*")) {
+            return null;
+        }
+        // If-Match uses the strong comparison, weak or foreign tags never match a device version. The version is
+        // compared whatever representation the tag was issued for, an update replaces all of them
+        List<Long> versions = tags.stream()
+                .filter(tag -> tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\""))
+                .map(tag -> Representation.stripSuffix(tag.substring(1, tag.length() - 1)))
+                .filter(tag -> !tag.isEmpty() && tag.length() < 19 && tag.chars().allMatch(Character::isDigit))
+                .map(Long::valueOf)
+                .distinct()
+                .toList();
+        if (versions.size() > 1) {
+            throw new DeviceValidationException("If-Match must contain a single device version");
+        }
+        return versions.isEmpty() ? NO_VERSION : versions.getFirst();
+    }
+
+    /**
+     * Formats produced by this controller, in the order of the {@code produces} attribute.
+     */
+    private enum Representation {
+
+        JSON(MediaType.APPLICATION_JSON, "json"),
+        CBOR(MediaType.APPLICATION_CBOR, "cbor"),
+        SMILE(MediaType.parseMediaType(BinaryFormatConfig.APPLICATION_SMILE_VALUE), "smile");
+
+        private final MediaType mediaType;
+        private final String suffix;
+
+        Representation(MediaType mediaType, String suffix) {
+            this.mediaType = mediaType;
+            this.suffix = suffix;
+        }
+
+        static String stripSuffix(String tag) {
+            for (Representation representation : values()) {
+                if (tag.endsWith("-" + representation.suffix)) {
+                    return tag.substring(0, tag.length() - representation.suffix.length() - 1);
+                }
+            }
+            return tag;
+        }
+
+    }
+
 }
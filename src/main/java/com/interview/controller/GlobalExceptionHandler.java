@@ -1,16 +1,31 @@
 package com.interview.controller;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import com.interview.admission.AdmissionControlInterceptor;
 import com.interview.dto.ErrorResponseDto;
 import com.interview.exception.DeviceNotFoundException;
+import com.interview.exception.DevicePreconditionFailedException;
 import com.interview.exception.DeviceValidationException;
+import com.interview.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 /**
  * Global exception handler for all handling exceptions and converting them to {@link ErrorResponseDto}.
@@ -18,6 +33,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseDto> handleValidationExceptions(MethodArgumentNotValidException ex) {
         List<String> errors = ex.getBindingResult()
@@ -45,6 +62,46 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponseDto> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation Error",
+                "Invalid value for " + ex.getName() + ": " + ex.getValue()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponseDto> handleMessageNotReadable(HttpMessageNotReadableException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                HttpStatus.BAD_REQUEST.value(),
+                "Malformed Request",
+                "Request body could not be read"
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ErrorResponseDto> handleMediaTypeNotSupported(HttpMediaTypeNotSupportedException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(),
+                "Unsupported Media Type",
+                "Content type " + ex.getContentType() + " is not supported"
+        );
+        return new ResponseEntity<>(error, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ErrorResponseDto> handleNoResourceFound(NoResourceFoundException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                HttpStatus.NOT_FOUND.value(),
+                "Not Found",
+                "No endpoint " + ex.getHttpMethod() + " /" + ex.getResourcePath()
+        );
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(DeviceNotFoundException.class)
     public ResponseEntity<ErrorResponseDto> handleDeviceNotFound(DeviceNotFoundException ex) {
         ErrorResponseDto error = new ErrorResponseDto(
@@ -65,4 +122,59 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(DevicePreconditionFailedException.class)
+    public ResponseEntity<ErrorResponseDto> handleDevicePreconditionFailed(DevicePreconditionFailedException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                ex.getMessage()
+        );
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // stale versions as well as rows moved to another state partition by a concurrent transaction
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "Device was changed concurrently, please retry"
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponseDto> handleServiceOverloaded(ServiceOverloadedException ex) {
+        return serviceUnavailable(ex.getMessage(), ex.getRetryAfter());
+    }
+
+    // the database cannot hand out a connection or answer in time, reported like an overload so clients back off
+    // and admission control shrinks its limits
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponseDto> handleDatabaseUnavailable(Exception ex, HttpServletRequest request) {
+        AdmissionControlInterceptor.markDropped(request);
+        return serviceUnavailable("Database is unavailable, please retry", RETRY_AFTER);
+    }
+
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ErrorResponseDto> handleAsyncRequestTimeout(AsyncRequestTimeoutException ex,
+                                                                      HttpServletRequest request) {
+        AdmissionControlInterceptor.markDropped(request);
+        return serviceUnavailable("Request timed out, please retry", RETRY_AFTER);
+    }
+
+    private static ResponseEntity<ErrorResponseDto> serviceUnavailable(String message, Duration retryAfter) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                message
+        );
+        // Retry-After is in whole seconds, rounded up so clients never retry too early
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(error);
+    }
+
 }
@@ -0,0 +1,64 @@
+package com.interview.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.interview.enums.DeviceBatchItemStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Result of a single item of a batch request")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeviceBatchItemResultDto {
+
+    @Schema(description = "Zero-based position of the item in the request")
+    private int index;
+    @Schema(description = "Outcome of the item")
+    private DeviceBatchItemStatus status;
+    @Schema(description = "ID of the created device")
+    private Long id;
+    @Schema(description = "Reasons why the item was not created")
+    private List<String> errors;
+
+    public DeviceBatchItemResultDto() {
+    }
+
+    public DeviceBatchItemResultDto(int index, DeviceBatchItemStatus status, Long id, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public DeviceBatchItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DeviceBatchItemStatus status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.interview.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Result of a batch device creation")
+public class DeviceBatchResponseDto {
+
+    @Schema(description = "Number of created devices")
+    private int created;
+    @Schema(description = "Number of items that were not created")
+    private int failed;
+    @Schema(description = "Result of every item, in request order")
+    private List<DeviceBatchItemResultDto> results;
+
+    public DeviceBatchResponseDto() {
+    }
+
+    public DeviceBatchResponseDto(int created, int failed, List<DeviceBatchItemResultDto> results) {
+        this.created = created;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<DeviceBatchItemResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<DeviceBatchItemResultDto> results) {
+        this.results = results;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.interview.dto;
+
+import java.util.Map;
+
+import com.interview.enums.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Number of devices of a brand per state")
+public class DeviceBrandStatsDto {
+
+    @Schema(description = "Lower-cased brand name")
+    private String brand;
+    @Schema(description = "Total number of devices of the brand")
+    private long total;
+    @Schema(description = "Number of devices of the brand per state")
+    private Map<DeviceState, Long> states;
+
+    public DeviceBrandStatsDto() {
+    }
+
+    public DeviceBrandStatsDto(String brand, long total, Map<DeviceState, Long> states) {
+        this.brand = brand;
+        this.total = total;
+        this.states = states;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<DeviceState, Long> getStates() {
+        return states;
+    }
+
+    public void setStates(Map<DeviceState, Long> states) {
+        this.states = states;
+    }
+
+}
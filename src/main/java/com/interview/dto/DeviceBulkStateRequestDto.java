@@ -0,0 +1,66 @@
+package com.interview.dto;
+
+import java.util.List;
+
+import com.interview.enums.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Model to move devices selected by ids or by a brand and/or state filter to a new state")
+public class DeviceBulkStateRequestDto {
+
+    @Schema(description = "Device IDs. Cannot be combined with the brand and state filters",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private List<Long> ids;
+    @Schema(description = "Brand name filter, case-insensitive", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private String brand;
+    @Schema(description = "Current state filter", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private DeviceState state;
+
+    @NotNull(message = "Target state is required")
+    @Schema(description = "New device state", requiredMode = Schema.RequiredMode.REQUIRED)
+    private DeviceState targetState;
+
+    public DeviceBulkStateRequestDto() {
+    }
+
+    public DeviceBulkStateRequestDto(List<Long> ids, String brand, DeviceState state, DeviceState targetState) {
+        this.ids = ids;
+        this.brand = brand;
+        this.state = state;
+        this.targetState = targetState;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public DeviceState getState() {
+        return state;
+    }
+
+    public void setState(DeviceState state) {
+        this.state = state;
+    }
+
+    public DeviceState getTargetState() {
+        return targetState;
+    }
+
+    public void setTargetState(DeviceState targetState) {
+        this.targetState = targetState;
+    }
+
+}
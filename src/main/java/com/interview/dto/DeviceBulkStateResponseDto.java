@@ -0,0 +1,61 @@
+package com.interview.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Result of a bulk state transition")
+public class DeviceBulkStateResponseDto {
+
+    @Schema(description = "IDs of the devices moved to the target state")
+    private List<Long> updated = new ArrayList<>();
+    @Schema(description = "IDs of the devices that already were in the target state")
+    private List<Long> unchanged = new ArrayList<>();
+    @Schema(description = "Requested IDs without a device")
+    private List<Long> notFound = new ArrayList<>();
+
+    public DeviceBulkStateResponseDto() {
+    }
+
+    public DeviceBulkStateResponseDto(List<Long> updated, List<Long> unchanged, List<Long> notFound) {
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.notFound = notFound;
+    }
+
+    /**
+     * Append the results of another chunk.
+     * @param chunk - Result of the chunk.
+     */
+    public void add(DeviceBulkStateResponseDto chunk) {
+        updated.addAll(chunk.getUpdated());
+        unchanged.addAll(chunk.getUnchanged());
+        notFound.addAll(chunk.getNotFound());
+    }
+
+    public List<Long> getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(List<Long> updated) {
+        this.updated = updated;
+    }
+
+    public List<Long> getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(List<Long> unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public List<Long> getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(List<Long> notFound) {
+        this.notFound = notFound;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.interview.dto;
+
+import com.interview.enums.DeviceChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Committed change of a device, sent by the change feed")
+public class DeviceChangeDto {
+
+    @Schema(description = "Kind of change")
+    private DeviceChangeType type;
+    @Schema(description = "Device ID")
+    private Long deviceId;
+    @Schema(description = "Device after the change, or before it for deleted devices. "
+            + "Not set for changes committed on another instance")
+    private DeviceResponseDto device;
+
+    public DeviceChangeDto() {
+    }
+
+    public DeviceChangeDto(DeviceChangeType type, Long deviceId, DeviceResponseDto device) {
+        this.type = type;
+        this.deviceId = deviceId;
+        this.device = device;
+    }
+
+    public DeviceChangeType getType() {
+        return type;
+    }
+
+    public void setType(DeviceChangeType type) {
+        this.type = type;
+    }
+
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(Long deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public DeviceResponseDto getDevice() {
+        return device;
+    }
+
+    public void setDevice(DeviceResponseDto device) {
+        this.device = device;
+    }
+
+}
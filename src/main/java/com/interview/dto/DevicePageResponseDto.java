@@ -0,0 +1,79 @@
+package com.interview.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Page;
+
+@Schema(description = "Page of devices with the total number of matching devices")
+public class DevicePageResponseDto {
+
+    @Schema(description = "Devices of the current page")
+    private List<DeviceResponseDto> content;
+    @Schema(description = "Zero-based page number")
+    private int page;
+    @Schema(description = "Requested page size")
+    private int size;
+    @Schema(description = "Number of devices matching the filters, estimated when requested")
+    private long totalElements;
+    @Schema(description = "Number of pages")
+    private int totalPages;
+
+    public DevicePageResponseDto() {
+    }
+
+    public DevicePageResponseDto(List<DeviceResponseDto> content, int page, int size, long totalElements,
+                                 int totalPages) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    public static DevicePageResponseDto of(Page<DeviceResponseDto> page) {
+        return new DevicePageResponseDto(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages());
+    }
+
+    public List<DeviceResponseDto> getContent() {
+        return content;
+    }
+
+    public void setContent(List<DeviceResponseDto> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+}
@@ -3,10 +3,14 @@ package com.interview.dto;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.interview.enums.DeviceState;
+import com.interview.json.DeviceResponseSerializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Device model with related information")
+@JsonSerialize(using = DeviceResponseSerializer.class)
 public class DeviceResponseDto {
 
     @Schema(description = "Device ID")
@@ -22,6 +26,10 @@ public class DeviceResponseDto {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime creationTime;
 
+    // exposed as the ETag header, not in the body
+    @JsonIgnore
+    private Long version;
+
     public DeviceResponseDto() {
     }
 
@@ -33,6 +41,12 @@ public class DeviceResponseDto {
         this.creationTime = creationTime;
     }
 
+    public DeviceResponseDto(Long id, String name, String brand, DeviceState state, LocalDateTime creationTime,
+                             Long version) {
+        this(id, name, brand, state, creationTime);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -73,4 +87,12 @@ public class DeviceResponseDto {
         this.creationTime = creationTime;
     }
 
-}
\ No newline at end of file
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.interview.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Slice of devices fetched with cursor pagination, without a total count")
+public class DeviceSliceResponseDto {
+
+    @Schema(description = "Devices of the current slice")
+    private List<DeviceResponseDto> content;
+    @Schema(description = "Requested slice size")
+    private int size;
+    @Schema(description = "Whether there are more devices after this slice")
+    private boolean hasNext;
+    @Schema(description = "Opaque cursor to fetch the next slice. Absent on the last slice")
+    private String nextCursor;
+
+    public DeviceSliceResponseDto() {
+    }
+
+    public DeviceSliceResponseDto(List<DeviceResponseDto> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<DeviceResponseDto> getContent() {
+        return content;
+    }
+
+    public void setContent(List<DeviceResponseDto> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+}
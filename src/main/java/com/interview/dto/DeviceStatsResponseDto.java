@@ -0,0 +1,52 @@
+package com.interview.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.interview.enums.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Number of devices per state and per brand")
+public class DeviceStatsResponseDto {
+
+    @Schema(description = "Total number of devices")
+    private long total;
+    @Schema(description = "Number of devices per state")
+    private Map<DeviceState, Long> states;
+    @Schema(description = "Number of devices per lower-cased brand, ordered by brand")
+    private List<DeviceBrandStatsDto> brands;
+
+    public DeviceStatsResponseDto() {
+    }
+
+    public DeviceStatsResponseDto(long total, Map<DeviceState, Long> states, List<DeviceBrandStatsDto> brands) {
+        this.total = total;
+        this.states = states;
+        this.brands = brands;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<DeviceState, Long> getStates() {
+        return states;
+    }
+
+    public void setStates(Map<DeviceState, Long> states) {
+        this.states = states;
+    }
+
+    public List<DeviceBrandStatsDto> getBrands() {
+        return brands;
+    }
+
+    public void setBrands(List<DeviceBrandStatsDto> brands) {
+        this.brands = brands;
+    }
+
+}
@@ -4,9 +4,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.interview.json.ErrorResponseSerializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Error response model with details")
+@JsonSerialize(using = ErrorResponseSerializer.class)
 public class ErrorResponseDto {
 
     @Schema(description = "HTTP status code")
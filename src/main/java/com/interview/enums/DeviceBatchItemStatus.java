@@ -0,0 +1,10 @@
+package com.interview.enums;
+
+/**
+ * Represents the outcome of a single item of a batch request.
+ */
+public enum DeviceBatchItemStatus {
+    CREATED,
+    INVALID,
+    FAILED
+}
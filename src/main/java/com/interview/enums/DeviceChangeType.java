@@ -0,0 +1,10 @@
+package com.interview.enums;
+
+/**
+ * Represents the kind of change applied to a device.
+ */
+public enum DeviceChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
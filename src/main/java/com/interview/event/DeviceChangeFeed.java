@@ -0,0 +1,283 @@
+package com.interview.event;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.interview.dto.DeviceChangeDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceChangeType;
+import com.interview.enums.DeviceState;
+import com.interview.outbox.DeviceInvalidationListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Feed of committed device changes for Server-Sent Events subscribers. Changes are appended after the transaction
+ * commits to a ring buffer of {@code device.changes.buffer-size} entries, numbered by a sequence that is sent as the
+ * event id behind a token generated at startup. Sequences are counted per instance and restart with every run, so
+ * the token tells ids of this run apart from ids issued by another instance or an earlier run. Every subscriber has
+ * its own virtual thread that reads the buffer from its last sent sequence, so a slow subscriber never blocks a
+ * commit or other subscribers, and no per-subscriber queue grows on the heap. A subscriber that falls behind the
+ * buffer, or resumes from an id that is not from this run or no longer buffered, gets a single {@code reset} event
+ * in place of the lost changes and continues with the latest ones.
+ * <p>
+ * Changes committed by other instances are appended when the {@link com.interview.outbox.DeviceOutbox} delivers
+ * them. The outbox only carries the device id and the kind of change, so these changes are sent without the device
+ * and to every subscriber, whatever its filters. When the outbox may have missed changes, every subscriber gets a
+ * {@code reset}.
+ */
+@Component
+public class DeviceChangeFeed implements DeviceInvalidationListener {
+
+    static final String CHANGE_EVENT = "change";
+    static final String RESET_EVENT = "reset";
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceChangeFeed.class);
+
+    private final String stream = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final Entry[] buffer;
+    private final Duration timeout;
+    private final Duration heartbeatInterval;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // guarded by lock
+    private long latestSequence;
+
+    public DeviceChangeFeed(@Value("${device.changes.buffer-size:10000}") int bufferSize,
+                            @Value("${device.changes.timeout:PT30M}") Duration timeout,
+                            @Value("${device.changes.heartbeat-interval:PT15S}") Duration heartbeatInterval) {
+        this.buffer = new Entry[bufferSize];
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    /**
+     * Subscribe to changes of devices matching brand and/or state. A change matches if the device matches before
+     * or after it, so subscribers also see devices leaving the filter.
+     * @param brand - Brand name, case-insensitive. Can be null.
+     * @param state - Device state. Can be null.
+     * @param lastEventId - Id of the last event received before reconnecting. Can be null to receive new changes only.
+     * @return - Emitter sending the changes.
+     */
+    public SseEmitter subscribe(String brand, DeviceState state, String lastEventId) {
+        return subscribe(new SseEmitter(timeout.toMillis()), brand, state, lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String brand, DeviceState state, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, brand, state, startSequence(lastEventId));
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.thread = Thread.ofVirtual()
+                .name("device-changes")
+                .start(subscriber::run);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        append(event.getType(), event.getDeviceId(), event.getPrevious(), event.getCurrent());
+    }
+
+    @Override
+    public void invalidate(Long deviceId, DeviceChangeType type) {
+        append(type, deviceId, null, null);
+    }
+
+    @Override
+    public void invalidateAll() {
+        append(null, null, null, null);
+    }
+
+    /**
+     * @return - Number of connected subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private long startSequence(String lastEventId) {
+        lock.lock();
+        try {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return latestSequence;
+            }
+            String id = lastEventId.trim();
+            int separator = id.lastIndexOf('-');
+            if (separator < 0 || !stream.equals(id.substring(0, separator))) {
+                // issued by another instance or an earlier run, the subscriber is reset to the latest change
+                return Long.MAX_VALUE;
+            }
+            try {
+                return Long.parseLong(id.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                return Long.MAX_VALUE;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String eventId(long sequence) {
+        return stream + "-" + sequence;
+    }
+
+    private void append(DeviceChangeType type, Long deviceId, DeviceResponseDto previous, DeviceResponseDto current) {
+        lock.lock();
+        try {
+            latestSequence++;
+            buffer[index(latestSequence)] = new Entry(latestSequence, type, deviceId, previous, current);
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % buffer.length);
+    }
+
+    /**
+     * Buffered change. Changes of other instances have neither device, a reset of all subscribers has no type.
+     */
+    private record Entry(long sequence, DeviceChangeType type, Long deviceId, DeviceResponseDto previous,
+                         DeviceResponseDto current) {
+
+        boolean isReset() {
+            return type == null;
+        }
+
+        boolean isRemote() {
+            return previous == null && current == null;
+        }
+
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String brand;
+        private final DeviceState state;
+        private volatile boolean closed;
+        private volatile Thread thread;
+        private long sentSequence;
+
+        private Subscriber(SseEmitter emitter, String brand, DeviceState state, long sentSequence) {
+            this.emitter = emitter;
+            this.brand = brand;
+            this.state = state;
+            this.sentSequence = sentSequence;
+        }
+
+        private void run() {
+            try {
+                while (!closed) {
+                    List<Entry> entries = new ArrayList<>();
+                    boolean reset = await(entries);
+                    if (closed) {
+                        break;
+                    }
+                    if (reset) {
+                        emitter.send(SseEmitter.event().id(eventId(sentSequence)).name(RESET_EVENT).data(""));
+                    }
+                    for (Entry entry : entries) {
+                        if (entry.isReset()) {
+                            emitter.send(SseEmitter.event().id(eventId(entry.sequence())).name(RESET_EVENT).data(""));
+                        } else if (entry.isRemote() || matches(entry.previous()) || matches(entry.current())) {
+                            emitter.send(SseEmitter.event()
+                                    .id(eventId(entry.sequence()))
+                                    .name(CHANGE_EVENT)
+                                    .data(toChange(entry)));
+                        }
+                    }
+                    if (!reset && entries.isEmpty()) {
+                        // detects disconnected clients while no changes happen
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Device change subscriber disconnected: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Wait for changes after the sent sequence and collect them.
+         * @return - True if changes were lost and the subscriber continues with the latest one.
+         */
+        private boolean await(List<Entry> entries) throws InterruptedException {
+            lock.lock();
+            try {
+                long deadline = System.nanoTime() + heartbeatInterval.toNanos();
+                while (sentSequence == latestSequence && !closed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    appended.awaitNanos(remaining);
+                }
+
+                boolean reset = sentSequence > latestSequence || latestSequence - sentSequence > buffer.length;
+                if (reset) {
+                    sentSequence = latestSequence;
+                    return true;
+                }
+                for (long sequence = sentSequence + 1; sequence <= latestSequence; sequence++) {
+                    entries.add(buffer[index(sequence)]);
+                }
+                sentSequence = latestSequence;
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean matches(DeviceResponseDto device) {
+            return device != null
+                    && (brand == null || brand.equalsIgnoreCase(device.getBrand()))
+                    && (state == null || state == device.getState());
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            Thread current = thread;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+
+    }
+
+    private static DeviceChangeDto toChange(Entry entry) {
+        DeviceResponseDto device = entry.type() == DeviceChangeType.DELETED ? entry.previous() : entry.current();
+        return new DeviceChangeDto(entry.type(), entry.deviceId(), device);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.interview.event;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceChangeType;
+
+/**
+ * Event published by the device service for every device mutation. Listeners that maintain derived state
+ * should consume it after the transaction commits.
+ */
+public class DeviceChangedEvent {
+
+    private final DeviceChangeType type;
+    private final Long deviceId;
+    private final DeviceResponseDto previous;
+    private final DeviceResponseDto current;
+
+    private DeviceChangedEvent(DeviceChangeType type, Long deviceId, DeviceResponseDto previous, DeviceResponseDto current) {
+        this.type = type;
+        this.deviceId = deviceId;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static DeviceChangedEvent created(DeviceResponseDto current) {
+        return new DeviceChangedEvent(DeviceChangeType.CREATED, current.getId(), null, current);
+    }
+
+    public static DeviceChangedEvent updated(DeviceResponseDto previous, DeviceResponseDto current) {
+        return new DeviceChangedEvent(DeviceChangeType.UPDATED, previous.getId(), previous, current);
+    }
+
+    public static DeviceChangedEvent deleted(DeviceResponseDto previous) {
+        return new DeviceChangedEvent(DeviceChangeType.DELETED, previous.getId(), previous, null);
+    }
+
+    public DeviceChangeType getType() {
+        return type;
+    }
+
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * @return - Device before the change. Null for created devices.
+     */
+    public DeviceResponseDto getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return - Device after the change. Null for deleted devices.
+     */
+    public DeviceResponseDto getCurrent() {
+        return current;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.interview.exception;
+
+/**
+ * Exception to be thrown when a device does not have the version expected by a conditional request.
+ */
+public class DevicePreconditionFailedException extends RuntimeException {
+
+    public DevicePreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public DevicePreconditionFailedException(Long id, Long expectedVersion) {
+        super("Device with id: " + id + " does not have the expected version: " + expectedVersion);
+    }
+
+}
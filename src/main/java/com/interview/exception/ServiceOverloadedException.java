@@ -0,0 +1,24 @@
+package com.interview.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception to be thrown when a request is rejected because the service cannot take more work right now.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return - Time after which the request can be retried.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.interview.json;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+
+/**
+ * Serializes {@link DeviceResponseDto} with field names and states encoded once, instead of through reflective
+ * bean properties. Writes the same JSON as the bean serializer would.
+ */
+public class DeviceResponseSerializer extends StdSerializer<DeviceResponseDto> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString BRAND = new SerializedString("brand");
+    private static final SerializableString STATE = new SerializedString("state");
+    private static final SerializableString CREATION_TIME = new SerializedString("creationTime");
+
+    private static final Map<DeviceState, SerializableString> STATES = new EnumMap<>(DeviceState.class);
+
+    static {
+        for (DeviceState state : DeviceState.values()) {
+            STATES.put(state, new SerializedString(state.name()));
+        }
+    }
+
+    public DeviceResponseSerializer() {
+        super(DeviceResponseDto.class);
+    }
+
+    @Override
+    public void serialize(DeviceResponseDto device, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(device);
+        generator.writeFieldName(ID);
+        if (device.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(device.getId());
+        }
+        generator.writeFieldName(NAME);
+        generator.writeString(device.getName());
+        generator.writeFieldName(BRAND);
+        generator.writeString(device.getBrand());
+        generator.writeFieldName(STATE);
+        if (device.getState() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(STATES.get(device.getState()));
+        }
+        generator.writeFieldName(CREATION_TIME);
+        JsonTimestamps.write(generator, device.getCreationTime());
+        generator.writeEndObject();
+    }
+
+}
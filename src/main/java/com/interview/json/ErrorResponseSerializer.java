@@ -0,0 +1,55 @@
+package com.interview.json;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.interview.dto.ErrorResponseDto;
+
+/**
+ * Serializes {@link ErrorResponseDto} with field names encoded once, instead of through reflective bean properties.
+ * Writes the same JSON as the bean serializer would.
+ */
+public class ErrorResponseSerializer extends StdSerializer<ErrorResponseDto> {
+
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString ERROR = new SerializedString("error");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString DETAILS = new SerializedString("details");
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+
+    public ErrorResponseSerializer() {
+        super(ErrorResponseDto.class);
+    }
+
+    @Override
+    public void serialize(ErrorResponseDto error, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(error);
+        generator.writeFieldName(STATUS);
+        generator.writeNumber(error.getStatus());
+        generator.writeFieldName(ERROR);
+        generator.writeString(error.getError());
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(error.getMessage());
+        generator.writeFieldName(DETAILS);
+        List<String> details = error.getDetails();
+        if (details == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray(details, details.size());
+            for (String detail : details) {
+                generator.writeString(detail);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeFieldName(TIMESTAMP);
+        JsonTimestamps.write(generator, error.getTimestamp());
+        generator.writeEndObject();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.interview.json;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes timestamps in the {@code yyyy-MM-dd'T'HH:mm:ss} format of the API without a {@link DateTimeFormatter}.
+ */
+final class JsonTimestamps {
+
+    static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    private static final int LENGTH = PATTERN.length() - 2;
+
+    private JsonTimestamps() {
+    }
+
+    static void write(JsonGenerator generator, LocalDateTime timestamp) throws IOException {
+        if (timestamp == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = timestamp.getYear();
+        if (year < 0 || year > 9999) {
+            generator.writeString(FORMATTER.format(timestamp));
+            return;
+        }
+
+        char[] chars = new char[LENGTH];
+        digits(chars, 0, year, 4);
+        chars[4] = '-';
+        digits(chars, 5, timestamp.getMonthValue(), 2);
+        chars[7] = '-';
+        digits(chars, 8, timestamp.getDayOfMonth(), 2);
+        chars[10] = 'T';
+        digits(chars, 11, timestamp.getHour(), 2);
+        chars[13] = ':';
+        digits(chars, 14, timestamp.getMinute(), 2);
+        chars[16] = ':';
+        digits(chars, 17, timestamp.getSecond(), 2);
+        generator.writeString(chars, 0, LENGTH);
+    }
+
+    private static void digits(char[] chars, int offset, int value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+}
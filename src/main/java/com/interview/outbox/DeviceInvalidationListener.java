@@ -0,0 +1,24 @@
+package com.interview.outbox;
+
+import com.interview.enums.DeviceChangeType;
+
+/**
+ * Receives device changes committed by other application instances, delivered through the {@link DeviceOutbox}.
+ * Implementations keep local derived state, such as caches, coherent across instances. Deliveries are at least
+ * once, so handling must be idempotent.
+ */
+public interface DeviceInvalidationListener {
+
+    /**
+     * A device was changed by another instance.
+     * @param deviceId - Device ID.
+     * @param type - Kind of change.
+     */
+    void invalidate(Long deviceId, DeviceChangeType type);
+
+    /**
+     * Changes of other instances may have been missed, all local state about devices must be dropped.
+     */
+    void invalidateAll();
+
+}
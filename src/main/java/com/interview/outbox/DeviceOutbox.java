@@ -0,0 +1,229 @@
+package com.interview.outbox;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.interview.enums.DeviceChangeType;
+import com.interview.event.DeviceChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactional outbox that delivers device changes to the other running instances without a message broker.
+ * <p>
+ * Every instance registers itself in {@code device_outbox_node} and keeps its registration alive. Changes
+ * published by the device service are written to {@code device_outbox} right before the transaction commits,
+ * one row per other registered instance, so they are stored only if the change commits. The relay of each
+ * instance polls its own rows in batches with {@code FOR UPDATE SKIP LOCKED}, hands them to the
+ * {@link DeviceInvalidationListener}s and deletes them in the same transaction. Rows of instances that stopped
+ * sending heartbeats, and rows older than the retention, are pruned in chunks.
+ * <p>
+ * An instance whose registration expired may have missed changes, so it invalidates everything when it
+ * registers again.
+ */
+@Component
+@ConditionalOnProperty(name = "device.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class DeviceOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceOutbox.class);
+
+    private static final String INSERT_CHANGE = "INSERT INTO device_outbox (node_id, device_id, change_type) "
+            + "SELECT node_id, ?, ? FROM device_outbox_node WHERE node_id <> ?";
+
+    private static final String REGISTER_NODE = "INSERT INTO device_outbox_node (node_id, heartbeat_time) "
+            + "VALUES (?, LOCALTIMESTAMP) ON CONFLICT (node_id) DO UPDATE SET heartbeat_time = LOCALTIMESTAMP "
+            + "RETURNING (xmax = 0) AS inserted";
+
+    private static final String POLL_CHANGES = "DELETE FROM device_outbox WHERE id IN ("
+            + "SELECT id FROM device_outbox WHERE node_id = ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING device_id, change_type";
+
+    private static final String PRUNE_NODES = "DELETE FROM device_outbox_node "
+            + "WHERE heartbeat_time < LOCALTIMESTAMP - CAST(? AS INTERVAL)";
+
+    private static final String PRUNE_CHANGES = "DELETE FROM device_outbox WHERE id IN ("
+            + "SELECT o.id FROM device_outbox o "
+            + "WHERE o.creation_time < LOCALTIMESTAMP - CAST(? AS INTERVAL) "
+            + "OR NOT EXISTS (SELECT 1 FROM device_outbox_node n WHERE n.node_id = o.node_id) "
+            + "LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<DeviceInvalidationListener> listeners;
+    private final String nodeId;
+    private final int batchSize;
+    private final Duration nodeTimeout;
+    private final Duration retention;
+
+    private volatile boolean registered;
+
+    public DeviceOutbox(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        List<DeviceInvalidationListener> listeners,
+                        @Value("${device.outbox.node-id:}") String nodeId,
+                        @Value("${device.outbox.batch-size:500}") int batchSize,
+                        @Value("${device.outbox.node-timeout:PT1M}") Duration nodeTimeout,
+                        @Value("${device.outbox.retention:PT1H}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.listeners = listeners;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.batchSize = batchSize;
+        this.nodeTimeout = nodeTimeout;
+        this.retention = retention;
+    }
+
+    /**
+     * @return - Id of this instance.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Collect a change of the current transaction, to be written to the outbox right before it commits.
+     * All changes of a transaction are written with one JDBC batch.
+     */
+    @EventListener
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Device {} changed outside of a transaction, other instances are not notified", event.getDeviceId());
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<DeviceChangedEvent> pending = (List<DeviceChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<DeviceChangedEvent> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(DeviceOutbox.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * Register this instance, or extend its registration.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${device.outbox.heartbeat-interval:PT10S}",
+            fixedDelayString = "${device.outbox.heartbeat-interval:PT10S}")
+    public void heartbeat() {
+        Boolean inserted = jdbcTemplate.queryForObject(REGISTER_NODE, Boolean.class, nodeId);
+        if (Boolean.TRUE.equals(inserted)) {
+            if (registered) {
+                log.warn("Outbox registration of node {} expired, invalidating all devices", nodeId);
+            }
+            // changes committed while this instance was not registered were not delivered to it
+            listeners.forEach(DeviceInvalidationListener::invalidateAll);
+        }
+        registered = true;
+    }
+
+    /**
+     * Deliver the changes of other instances to the listeners, in batches of {@code device.outbox.batch-size}.
+     * @return - Number of delivered changes.
+     */
+    @Scheduled(fixedDelayString = "${device.outbox.poll-interval:PT1S}")
+    public int relay() {
+        if (!registered) {
+            return 0;
+        }
+
+        int delivered = 0;
+        int polled;
+        do {
+            polled = transactionTemplate.execute(status -> {
+                // rows are deleted before the transaction commits, a listener failure rolls the batch back for a retry
+                List<Integer> rows = jdbcTemplate.query(POLL_CHANGES, (rs, rowNum) -> {
+                    Long deviceId = rs.getLong("device_id");
+                    DeviceChangeType type = DeviceChangeType.valueOf(rs.getString("change_type"));
+                    listeners.forEach(listener -> listener.invalidate(deviceId, type));
+                    return rowNum;
+                }, nodeId, batchSize);
+                return rows.size();
+            });
+            delivered += polled;
+        } while (polled == batchSize);
+        return delivered;
+    }
+
+    /**
+     * Remove instances that stopped sending heartbeats, and in chunks of {@code device.outbox.batch-size} the
+     * changes that cannot be delivered anymore.
+     * @return - Number of pruned changes.
+     */
+    @Scheduled(initialDelayString = "${device.outbox.prune-interval:PT1M}",
+            fixedDelayString = "${device.outbox.prune-interval:PT1M}")
+    public int prune() {
+        int nodes = jdbcTemplate.update(PRUNE_NODES, interval(nodeTimeout));
+        if (nodes > 0) {
+            log.info("Removed {} outbox nodes without heartbeat", nodes);
+        }
+
+        int pruned = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PRUNE_CHANGES, interval(retention), batchSize);
+            pruned += deleted;
+        } while (deleted == batchSize);
+        return pruned;
+    }
+
+    @PreDestroy
+    public void unregister() {
+        try {
+            jdbcTemplate.update("DELETE FROM device_outbox_node WHERE node_id = ?", nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to unregister outbox node {}", nodeId, e);
+        }
+    }
+
+    private void write(List<DeviceChangedEvent> changes) {
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.getDeviceId());
+            ps.setString(2, change.getType().name());
+            ps.setString(3, nodeId);
+        });
+    }
+
+    private static String interval(Duration duration) {
+        return duration.toMillis() + " milliseconds";
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID();
+    }
+
+}
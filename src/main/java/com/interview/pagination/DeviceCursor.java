@@ -0,0 +1,138 @@
+package com.interview.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.exception.DeviceValidationException;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset position in a device listing. Holds the sort key and the values of the last returned row
+ * (sort value plus id as a tie-breaker), so the next page can be fetched with a seek predicate
+ * instead of an offset. Encoded as an opaque URL-safe string for API clients.
+ */
+public final class DeviceCursor {
+
+    public static final String ID = "id";
+    public static final Set<String> SORT_PROPERTIES = Set.of(ID, "name", "brand", "creationTime");
+
+    private static final String SEPARATOR = ":";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final Object lastValue;
+
+    private DeviceCursor(String property, Sort.Direction direction, Long lastId, Object lastValue) {
+        this.property = property;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * Create a cursor pointing before the first row for the given sort.
+     * @param sort - Requested sort. At most one order is supported; unsorted means id ascending.
+     * @return - Cursor for the first page.
+     */
+    public static DeviceCursor first(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return new DeviceCursor(ID, Sort.Direction.ASC, null, null);
+        }
+
+        if (sort.stream().count() > 1) {
+            throw new DeviceValidationException("Cursor pagination supports a single sort property");
+        }
+
+        Sort.Order order = sort.iterator().next();
+        if (!SORT_PROPERTIES.contains(order.getProperty())) {
+            throw new DeviceValidationException("Unsupported sort property: " + order.getProperty());
+        }
+        return new DeviceCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     * @param encoded - Opaque cursor value.
+     * @return - Decoded cursor.
+     */
+    public static DeviceCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4 || !SORT_PROPERTIES.contains(parts[0])) {
+                throw new DeviceValidationException("Invalid cursor");
+            }
+
+            String property = parts[0];
+            Sort.Direction direction = Sort.Direction.fromString(parts[1]);
+            Long lastId = Long.valueOf(parts[2]);
+            Object lastValue = switch (property) {
+                case ID -> lastId;
+                case "creationTime" -> LocalDateTime.parse(parts[3]);
+                default -> parts[3];
+            };
+            return new DeviceCursor(property, direction, lastId, lastValue);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new DeviceValidationException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Create a cursor positioned after the given device, keeping the sort of this cursor.
+     * @param device - Last device of the current page.
+     * @return - Cursor for the next page.
+     */
+    public DeviceCursor after(DeviceResponseDto device) {
+        Object value = switch (property) {
+            case ID -> device.getId();
+            case "name" -> device.getName();
+            case "brand" -> device.getBrand();
+            default -> device.getCreationTime();
+        };
+        return new DeviceCursor(property, direction, device.getId(), value);
+    }
+
+    /**
+     * Encode this cursor as an opaque URL-safe string.
+     * @return - Encoded cursor.
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, property, direction.name(), String.valueOf(lastId), String.valueOf(lastValue));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Check whether the given sort is compatible with this cursor.
+     * @param sort - Requested sort. Unsorted is always compatible.
+     * @return - {@code true} if the sort is unsorted or equal to the cursor sort.
+     */
+    public boolean matches(Sort sort) {
+        return sort == null || sort.isUnsorted() || sort.equals(Sort.by(direction, property));
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+}
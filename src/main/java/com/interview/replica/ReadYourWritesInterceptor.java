@@ -0,0 +1,144 @@
+package com.interview.replica;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Reads of a client from the primary for a while after its own writes, so it sees them even before the replicas
+ * replayed them. A write answers with a cookie holding the time until which the client reads from the primary; the
+ * time travels with the client, so any instance behind a load balancer honours it.
+ * <p>
+ * The time is signed with an HMAC of the configured secret and cookies with another signature are ignored, so a
+ * client cannot move all of its reads to the primary by sending a time far in the future. Instances only honour each
+ * other's cookies when they share the secret; without one, every instance signs with a random key of its own.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String COOKIE_NAME = "device-read-primary-until";
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final Duration window;
+    private final String path;
+    private final SecretKeySpec key;
+
+    public ReadYourWritesInterceptor(Duration window, String path, String secret) {
+        this.window = window;
+        this.path = path;
+        this.key = new SecretKeySpec(secret.isBlank() ? randomKey() : secret.getBytes(StandardCharsets.UTF_8),
+                MAC_ALGORITHM);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!isRead(request)) {
+            // set before the handler runs, the response may be committed by the time it returns
+            long primaryUntil = System.currentTimeMillis() + window.toMillis();
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, sign(primaryUntil))
+                    .path(path)
+                    .maxAge(window)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        } else if (System.currentTimeMillis() < primaryUntil(request)) {
+            ReplicaRoutingContext.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReplicaRoutingContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRoutingContext.clear();
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    private long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return verify(cookie.getValue());
+            }
+        }
+        return 0;
+    }
+
+    String sign(long primaryUntil) {
+        String time = Long.toString(primaryUntil);
+        return time + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(time));
+    }
+
+    /**
+     * Get the time of a signed cookie value.
+     * @param value - Cookie value.
+     * @return - Time until which the client reads from the primary, 0 if the value is malformed or not signed by the
+     * secret.
+     */
+    private long verify(String value) {
+        int separator = value.indexOf('.');
+        if (separator < 0) {
+            return 0;
+        }
+        String time = value.substring(0, separator);
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(value.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+        // compared in constant time, so the signature cannot be guessed byte by byte
+        if (!MessageDigest.isEqual(mac(time), signature)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(time);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private byte[] mac(String time) {
+        try {
+            // a Mac is not thread-safe, requests sign with their own
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(time.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign read-your-writes cookies", e);
+        }
+    }
+
+    private static byte[] randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.interview.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets the current thread read from the primary inside read-only transactions, for reads that must see every
+ * committed write rather than what a replica has replayed so far.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * Run an action that reads from the primary only.
+     * @param action - Action to run, opening its own transactions.
+     * @return - Result of the action.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean required = isPrimaryRequired();
+        requirePrimary();
+        try {
+            return action.get();
+        } finally {
+            if (!required) {
+                clear();
+            }
+        }
+    }
+
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+}
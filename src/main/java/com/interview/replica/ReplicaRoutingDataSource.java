@@ -0,0 +1,205 @@
+package com.interview.replica;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out connections of a replica inside read-only transactions and of the primary otherwise. Replicas take
+ * turns, a replica that fails to hand out a connection or lags more than the allowed replication lag behind the
+ * primary is skipped until a later health check finds it healthy again. A replica whose pool is merely exhausted stays healthy, the
+ * read is served by the next replica or the primary instead. Reads go to the primary while no replica is healthy,
+ * and while {@link ReplicaRoutingContext} requires it.
+ * The read-only flag of a transaction is only known once it has begun, so this data source has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that fetches the connection on the first
+ * statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY_POSITION = "SELECT CAST(pg_current_wal_lsn() AS text)";
+
+    // a replica that replayed everything the primary had written when the check started is not lagging, however old
+    // its last transaction is; one that lost its connection to the primary falls behind as soon as the primary writes,
+    // although it replayed everything it received. The lag is unknown, null, before the first replayed transaction.
+    private static final String REPLICATION_LAG = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+                   END""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream()
+                .map(Replica::new)
+                .toList();
+        this.maxLag = maxLag;
+        this.replicaReads = reads(meterRegistry, "replica");
+        this.primaryReads = reads(meterRegistry, "primary");
+        Gauge.builder("device.datasource.replicas.healthy", this.replicas,
+                        all -> all.stream().filter(Replica::isHealthy).count())
+                .description("Replicas that read-only transactions are routed to")
+                .register(meterRegistry);
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("device.datasource.reads")
+                .description("Connections handed out to read-only transactions")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        if (!ReplicaRoutingContext.isPrimaryRequired()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                replicaReads.increment();
+                return connection;
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections are opened with the configured credentials only");
+    }
+
+    /**
+     * Check every replica with a connection of its own and mark it healthy if it answers and does not lag more than
+     * the allowed replication lag behind the current WAL position of the primary. Replicas keep their state while the
+     * primary cannot be asked for its position.
+     */
+    @Scheduled(fixedDelayString = "${device.replicas.check-interval:PT5S}")
+    public void checkReplicas() {
+        String primaryPosition;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PRIMARY_POSITION)) {
+            resultSet.next();
+            primaryPosition = resultSet.getString(1);
+        } catch (SQLException e) {
+            log.warn("Cannot check replicas, the WAL position of the primary is unknown: {}", e.getMessage());
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(REPLICATION_LAG)) {
+                statement.setString(1, primaryPosition);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    double lagSeconds = resultSet.getDouble(1);
+                    if (resultSet.wasNull()) {
+                        replica.markDown("behind the primary without a replayed transaction");
+                        continue;
+                    }
+                    Duration lag = Duration.ofMillis((long) (lagSeconds * 1000));
+                    if (lag.compareTo(maxLag) > 0) {
+                        replica.markDown("replication lag of " + lag);
+                    } else {
+                        replica.markUp();
+                    }
+                }
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection replicaConnection() {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                if (isPoolExhausted(e)) {
+                    log.debug("Replica {} has no free connection: {}", replica.dataSource, e.getMessage());
+                } else {
+                    replica.markDown(e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    // pools time out with a transient exception, caused by the last connection failure if the replica is unreachable
+    private static boolean isPoolExhausted(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        boolean isHealthy() {
+            return healthy;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Replica {} is healthy again, routing reads to it", dataSource);
+            }
+        }
+
+        void markDown(String reason) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Replica {} is unhealthy, routing its reads elsewhere: {}", dataSource, reason);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.interview.repository;
+
+import com.interview.enums.DeviceState;
+
+/**
+ * Projection with the number of devices for a lower-cased brand and a state.
+ */
+public interface DeviceCount {
+
+    String getBrand();
+
+    DeviceState getState();
+
+    long getTotal();
+
+}
@@ -0,0 +1,28 @@
+package com.interview.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Read queries for {@link com.interview.entity.DeviceEntity} that build {@link DeviceResponseDto} straight from
+ * the result set. No entity is instantiated, so nothing is managed, snapshotted or dirty checked, and no mapping
+ * step is needed. Page content is returned without a count query; totals are served by
+ * {@link com.interview.cache.DeviceCountTracker}.
+ */
+public interface DeviceProjectionRepository {
+
+    Optional<DeviceResponseDto> findResponseById(Long id);
+
+    List<DeviceResponseDto> findListByBrandIgnoreCaseAndState(String brand, DeviceState state, Pageable pageable);
+
+    List<DeviceResponseDto> findListByBrandIgnoreCase(String brand, Pageable pageable);
+
+    List<DeviceResponseDto> findListByState(DeviceState state, Pageable pageable);
+
+    List<DeviceResponseDto> findList(Pageable pageable);
+
+}
@@ -0,0 +1,106 @@
+package com.interview.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.exception.DeviceValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Implementation of {@link DeviceProjectionRepository}. Queries are created through the {@link EntityManager}
+ * instead of {@code @Query} methods, because Spring Data re-parses string queries on every invocation to apply
+ * the sort, which costs more than the projection saves. Hibernate caches the interpretation of each query string.
+ */
+class DeviceProjectionRepositoryImpl implements DeviceProjectionRepository {
+
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "name", "brand", "state", "creationTime");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<DeviceResponseDto> findResponseById(Long id) {
+        return entityManager.createQuery(DeviceRepository.SELECT_RESPONSE + " WHERE d.id = :id", DeviceResponseDto.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public List<DeviceResponseDto> findListByBrandIgnoreCaseAndState(String brand, DeviceState state, Pageable pageable) {
+        return find(brand, state, pageable);
+    }
+
+    @Override
+    public List<DeviceResponseDto> findListByBrandIgnoreCase(String brand, Pageable pageable) {
+        return find(brand, null, pageable);
+    }
+
+    @Override
+    public List<DeviceResponseDto> findListByState(DeviceState state, Pageable pageable) {
+        return find(null, state, pageable);
+    }
+
+    @Override
+    public List<DeviceResponseDto> findList(Pageable pageable) {
+        return find(null, null, pageable);
+    }
+
+    private List<DeviceResponseDto> find(String brand, DeviceState state, Pageable pageable) {
+        StringBuilder jpql = new StringBuilder(DeviceRepository.SELECT_RESPONSE);
+        appendWhere(jpql, brand, state);
+        appendOrderBy(jpql, pageable.getSort());
+
+        TypedQuery<DeviceResponseDto> query = entityManager.createQuery(jpql.toString(), DeviceResponseDto.class);
+        setParameters(query, brand, state);
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()))
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    private static void appendWhere(StringBuilder jpql, String brand, DeviceState state) {
+        List<String> predicates = new ArrayList<>();
+        if (brand != null) {
+            predicates.add("LOWER(d.brand) = LOWER(:brand)");
+        }
+        if (state != null) {
+            predicates.add("d.state = :state");
+        }
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+    }
+
+    private static void setParameters(TypedQuery<?> query, String brand, DeviceState state) {
+        if (brand != null) {
+            query.setParameter("brand", brand);
+        }
+        if (state != null) {
+            query.setParameter("state", state);
+        }
+    }
+
+    private static void appendOrderBy(StringBuilder jpql, Sort sort) {
+        String separator = " ORDER BY ";
+        for (Sort.Order order : sort) {
+            // properties are rendered into the query, so only known ones are accepted
+            if (!SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new DeviceValidationException("Unsupported sort property: " + order.getProperty());
+            }
+            jpql.append(separator).append("d.").append(order.getProperty())
+                    .append(order.isAscending() ? " ASC" : " DESC");
+            separator = ", ";
+        }
+    }
+
+}
@@ -1,11 +1,19 @@
 package com.interview.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.interview.dto.DeviceResponseDto;
 import com.interview.entity.DeviceEntity;
 import com.interview.enums.DeviceState;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,13 +21,68 @@ import org.springframework.stereotype.Repository;
  * Repository interface to handle database operations with {@link com.interview.entity.DeviceEntity}.
  */
 @Repository
-public interface DeviceRepository extends JpaRepository<DeviceEntity, Long> {
+public interface DeviceRepository extends JpaRepository<DeviceEntity, Long>, DeviceSeekRepository,
+        DeviceProjectionRepository, DeviceWriteRepository {
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Select clause building {@link DeviceResponseDto} straight from the result set, see {@link DeviceProjectionRepository}.
+     */
+    String SELECT_RESPONSE = "SELECT new com.interview.dto.DeviceResponseDto(d.id, d.name, d.brand, d.state, "
+            + "d.creationTime, d.version) FROM DeviceEntity d";
 
     @Query("SELECT d FROM DeviceEntity d WHERE LOWER(d.brand) = LOWER(:brand) AND d.state = :state")
     Page<DeviceEntity> findByBrandIgnoreCaseAndState(@Param("brand") String brand, @Param("state") DeviceState state, Pageable pageable);
 
-    Page<DeviceEntity> findByBrandIgnoreCase(String brand, Pageable pageable);
+    // a derived IgnoreCase query compares upper-cased brands, which the lower-cased brand indexes do not cover
+    @Query("SELECT d FROM DeviceEntity d WHERE LOWER(d.brand) = LOWER(:brand)")
+    Page<DeviceEntity> findByBrandIgnoreCase(@Param("brand") String brand, Pageable pageable);
 
     Page<DeviceEntity> findByState(DeviceState state, Pageable pageable);
 
+    // Streams for the export, read through a server-side cursor. Must be consumed inside a transaction.
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + " WHERE LOWER(d.brand) = LOWER(:brand) AND d.state = :state ORDER BY d.id")
+    Stream<DeviceResponseDto> streamByBrandIgnoreCaseAndState(@Param("brand") String brand, @Param("state") DeviceState state);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + " WHERE LOWER(d.brand) = LOWER(:brand) ORDER BY d.id")
+    Stream<DeviceResponseDto> streamByBrandIgnoreCase(@Param("brand") String brand);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + " WHERE d.state = :state ORDER BY d.id")
+    Stream<DeviceResponseDto> streamByState(@Param("state") DeviceState state);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_RESPONSE + " ORDER BY d.id")
+    Stream<DeviceResponseDto> streamAll();
+
+    @Query("SELECT d.id FROM DeviceEntity d WHERE d.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Exact counts, used while the count tracker is not available.
+
+    @Query("SELECT COUNT(d) FROM DeviceEntity d WHERE LOWER(d.brand) = LOWER(:brand) AND d.state = :state")
+    long countByBrandIgnoreCaseAndState(@Param("brand") String brand, @Param("state") DeviceState state);
+
+    @Query("SELECT COUNT(d) FROM DeviceEntity d WHERE LOWER(d.brand) = LOWER(:brand)")
+    long countByBrandIgnoreCase(@Param("brand") String brand);
+
+    long countByState(DeviceState state);
+
+    @Query("SELECT LOWER(d.brand) AS brand, d.state AS state, COUNT(d) AS total FROM DeviceEntity d "
+            + "GROUP BY LOWER(d.brand), d.state")
+    List<DeviceCount> countByBrandAndState();
+
+    /**
+     * Estimated number of devices from the Postgres planner statistics of the device partitions. Negative if no
+     * partition has been analyzed yet.
+     */
+    @Query(value = "SELECT CAST(CASE WHEN MAX(c.reltuples) < 0 THEN -1 ELSE SUM(GREATEST(c.reltuples, 0)) END AS BIGINT) "
+            + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('device')",
+            nativeQuery = true)
+    long estimateCount();
+
 }
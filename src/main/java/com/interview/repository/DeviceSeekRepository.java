@@ -0,0 +1,25 @@
+package com.interview.repository;
+
+import java.util.List;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.pagination.DeviceCursor;
+
+/**
+ * Keyset (seek) queries for {@link com.interview.entity.DeviceEntity}. Each query continues after the
+ * position stored in the {@link DeviceCursor} using a range predicate on (sort key, id), so the
+ * cost of a page does not depend on how deep it is and no count query is executed. Rows are projected
+ * straight into {@link DeviceResponseDto}.
+ */
+public interface DeviceSeekRepository {
+
+    List<DeviceResponseDto> seekByBrandIgnoreCaseAndState(String brand, DeviceState state, DeviceCursor cursor, int limit);
+
+    List<DeviceResponseDto> seekByBrandIgnoreCase(String brand, DeviceCursor cursor, int limit);
+
+    List<DeviceResponseDto> seekByState(DeviceState state, DeviceCursor cursor, int limit);
+
+    List<DeviceResponseDto> seekAll(DeviceCursor cursor, int limit);
+
+}
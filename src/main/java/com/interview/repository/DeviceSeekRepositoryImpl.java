@@ -0,0 +1,90 @@
+package com.interview.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.pagination.DeviceCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Implementation of {@link DeviceSeekRepository}. The sort property is taken from
+ * {@link DeviceCursor#SORT_PROPERTIES}, so it is safe to render it into the query.
+ */
+class DeviceSeekRepositoryImpl implements DeviceSeekRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DeviceResponseDto> seekByBrandIgnoreCaseAndState(String brand, DeviceState state, DeviceCursor cursor, int limit) {
+        return seek(brand, state, cursor, limit);
+    }
+
+    @Override
+    public List<DeviceResponseDto> seekByBrandIgnoreCase(String brand, DeviceCursor cursor, int limit) {
+        return seek(brand, null, cursor, limit);
+    }
+
+    @Override
+    public List<DeviceResponseDto> seekByState(DeviceState state, DeviceCursor cursor, int limit) {
+        return seek(null, state, cursor, limit);
+    }
+
+    @Override
+    public List<DeviceResponseDto> seekAll(DeviceCursor cursor, int limit) {
+        return seek(null, null, cursor, limit);
+    }
+
+    private List<DeviceResponseDto> seek(String brand, DeviceState state, DeviceCursor cursor, int limit) {
+        String property = "d." + cursor.getProperty();
+        String direction = cursor.getDirection() == Sort.Direction.ASC ? "ASC" : "DESC";
+        String comparison = cursor.getDirection() == Sort.Direction.ASC ? ">" : "<";
+        boolean sortById = DeviceCursor.ID.equals(cursor.getProperty());
+
+        List<String> predicates = new ArrayList<>();
+        if (brand != null) {
+            predicates.add("LOWER(d.brand) = LOWER(:brand)");
+        }
+        if (state != null) {
+            predicates.add("d.state = :state");
+        }
+        if (!cursor.isFirst()) {
+            // the leading inclusive bound gives the index scan its start key, the rest skips ties
+            predicates.add(sortById
+                    ? "d.id " + comparison + " :lastId"
+                    : property + " " + comparison + "= :lastValue AND (" + property + " " + comparison
+                    + " :lastValue OR d.id " + comparison + " :lastId)");
+        }
+
+        StringBuilder jpql = new StringBuilder(DeviceRepository.SELECT_RESPONSE);
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        jpql.append(" ORDER BY ").append(property).append(' ').append(direction);
+        if (!sortById) {
+            jpql.append(", d.id ").append(direction);
+        }
+
+        TypedQuery<DeviceResponseDto> query = entityManager.createQuery(jpql.toString(), DeviceResponseDto.class)
+                .setMaxResults(limit);
+        if (brand != null) {
+            query.setParameter("brand", brand);
+        }
+        if (state != null) {
+            query.setParameter("state", state);
+        }
+        if (!cursor.isFirst()) {
+            query.setParameter("lastId", cursor.getLastId());
+            if (!sortById) {
+                query.setParameter("lastValue", cursor.getLastValue());
+            }
+        }
+        return query.getResultList();
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.interview.repository;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+
+/**
+ * Device after a state transition, with the state it had before.
+ */
+public record DeviceStateChange(DeviceResponseDto device, DeviceState previousState) {
+
+    /**
+     * @return - Device as it was before the transition.
+     */
+    public DeviceResponseDto previous() {
+        return new DeviceResponseDto(device.getId(), device.getName(), device.getBrand(), previousState,
+                device.getCreationTime(), device.getVersion() - 1);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.interview.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+
+/**
+ * Conditional writes for {@link com.interview.entity.DeviceEntity} that check and change a row in a single
+ * statement. The affected rows are returned by the same statement, so no lookup is needed before or after
+ * the change. Rows are changed in the database only, devices already loaded in the persistence context are
+ * not updated.
+ */
+public interface DeviceWriteRepository {
+
+    /**
+     * Delete a device unless it is in use.
+     * @param id - Device ID.
+     * @return - Deleted device, or empty if the device does not exist or is in use.
+     */
+    Optional<DeviceResponseDto> deleteUnlessInUse(Long id);
+
+    /**
+     * Move devices to a state. Devices already in the state are not changed.
+     * @param ids - Device IDs.
+     * @param targetState - New device state.
+     * @return - Changed devices, ordered by id.
+     */
+    List<DeviceStateChange> updateStateByIds(Collection<Long> ids, DeviceState targetState);
+
+    /**
+     * Move up to {@code limit} devices matching the filters to a state, in id order. Devices already in the state
+     * are not changed, so repeated calls continue with the remaining devices.
+     * @param brand - Brand name, case-insensitive. Can be null.
+     * @param state - Current device state. Can be null.
+     * @param targetState - New device state.
+     * @param limit - Maximum number of devices to change.
+     * @return - Changed devices, ordered by id.
+     */
+    List<DeviceStateChange> updateStateByFilter(String brand, DeviceState state, DeviceState targetState, int limit);
+
+}
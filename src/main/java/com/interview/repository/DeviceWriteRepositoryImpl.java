@@ -0,0 +1,110 @@
+package com.interview.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Implementation of {@link DeviceWriteRepository}. Uses PostgreSQL {@code RETURNING} clauses, which JPQL
+ * bulk statements cannot express.
+ */
+class DeviceWriteRepositoryImpl implements DeviceWriteRepository {
+
+    private static final Comparator<DeviceStateChange> BY_ID = Comparator.comparing(change -> change.device().getId());
+
+    private static final String RETURNING_RESPONSE = " RETURNING id, name, brand, state, creation_time, version";
+
+    private static final String DELETE_UNLESS_IN_USE = "DELETE FROM device WHERE id = :id AND state <> 'IN_USE'"
+            + RETURNING_RESPONSE;
+
+    // rows are locked in id order, so concurrent transitions over overlapping devices cannot deadlock
+    private static final String UPDATE_STATE = "UPDATE device d SET state = :targetState, version = d.version + 1 "
+            + "FROM (SELECT id, state FROM device WHERE %s ORDER BY id %s FOR UPDATE) previous "
+            + "WHERE d.id = previous.id "
+            + "RETURNING d.id, d.name, d.brand, d.state, d.creation_time, d.version, previous.state AS previous_state";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<DeviceResponseDto> deleteUnlessInUse(Long id) {
+        return returningResponse(DELETE_UNLESS_IN_USE)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(DeviceWriteRepositoryImpl::toResponse);
+    }
+
+    @Override
+    public List<DeviceStateChange> updateStateByIds(Collection<Long> ids, DeviceState targetState) {
+        return returningStateChange(UPDATE_STATE.formatted("id IN (:ids) AND state <> :targetState", ""))
+                .setParameter("ids", ids)
+                .setParameter("targetState", targetState.name())
+                .getResultStream()
+                .map(DeviceWriteRepositoryImpl::toStateChange)
+                .sorted(BY_ID)
+                .toList();
+    }
+
+    @Override
+    public List<DeviceStateChange> updateStateByFilter(String brand, DeviceState state, DeviceState targetState, int limit) {
+        List<String> predicates = new ArrayList<>();
+        predicates.add("state <> :targetState");
+        if (brand != null) {
+            predicates.add("LOWER(brand) = LOWER(:brand)");
+        }
+        if (state != null) {
+            predicates.add("state = :state");
+        }
+
+        NativeQuery<Object[]> query = returningStateChange(UPDATE_STATE.formatted(String.join(" AND ", predicates), "LIMIT :limit"))
+                .setParameter("targetState", targetState.name())
+                .setParameter("limit", limit);
+        if (brand != null) {
+            query.setParameter("brand", brand);
+        }
+        if (state != null) {
+            query.setParameter("state", state.name());
+        }
+        return query.getResultStream()
+                .map(DeviceWriteRepositoryImpl::toStateChange)
+                .sorted(BY_ID)
+                .toList();
+    }
+
+    private NativeQuery<Object[]> returningStateChange(String sql) {
+        return returningResponse(sql)
+                .addScalar("previous_state", String.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> returningResponse(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("name", String.class)
+                .addScalar("brand", String.class)
+                .addScalar("state", String.class)
+                .addScalar("creation_time", LocalDateTime.class)
+                .addScalar("version", Long.class);
+    }
+
+    private static DeviceStateChange toStateChange(Object[] row) {
+        return new DeviceStateChange(toResponse(row), DeviceState.valueOf((String) row[6]));
+    }
+
+    private static DeviceResponseDto toResponse(Object[] row) {
+        return new DeviceResponseDto((Long) row[0], (String) row[1], (String) row[2], DeviceState.valueOf((String) row[3]),
+                (LocalDateTime) row[4], (Long) row[5]);
+    }
+
+}
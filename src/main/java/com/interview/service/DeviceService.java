@@ -1,11 +1,20 @@
 package com.interview.service;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.interview.dto.DeviceBrandStatsDto;
+import com.interview.dto.DeviceBulkStateResponseDto;
 import com.interview.dto.DeviceCreateRequestDto;
 import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceSliceResponseDto;
+import com.interview.dto.DeviceStatsResponseDto;
 import com.interview.dto.DeviceUpdateRequestDto;
 import com.interview.enums.DeviceState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 /**
  * Device service interface to handle business logic with {@link com.interview.entity.DeviceEntity}.
@@ -19,6 +28,13 @@ public interface DeviceService {
      */
     DeviceResponseDto createDevice(DeviceCreateRequestDto createDto);
 
+    /**
+     * Create new devices in a single transaction using JDBC batch inserts.
+     * @param createDtos - Validated DTO objects to create new devices.
+     * @return - DTO objects with the created device information, in the same order.
+     */
+    List<DeviceResponseDto> createDevices(List<DeviceCreateRequestDto> createDtos);
+
     /**
      * Get device by id.
      * @param id - Device ID.
@@ -34,20 +50,86 @@ public interface DeviceService {
 
     /**
      * Update a device by id. The device must not be in use.
-     * Only parameters that are not null will be updated.
+     * Only parameters that are not null will be updated. The update fails if the device was changed concurrently,
+     * no row lock is taken.
      * @param id - Device ID.
      * @param updateDto - DTO object with the device information to update.
+     * @param expectedVersion - Version the device must have to be updated. Can be null to update any version.
      * @return - DTO object with the updated device information.
      */
-    DeviceResponseDto updateDevice(Long id, DeviceUpdateRequestDto updateDto);
+    DeviceResponseDto updateDevice(Long id, DeviceUpdateRequestDto updateDto, Long expectedVersion);
+
+    /**
+     * Move devices to a state with set-based updates in one transaction. Devices already in the state are not changed.
+     * @param ids - Device IDs.
+     * @param targetState - New device state.
+     * @return - Updated, unchanged and not found device IDs.
+     */
+    DeviceBulkStateResponseDto updateDeviceStates(List<Long> ids, DeviceState targetState);
+
+    /**
+     * Move up to {@code limit} devices matching brand and/or state to a state with a set-based update
+     * in one transaction. Devices already in the state are not changed.
+     * @param brand - Brand name. Can be null.
+     * @param state - Current device state. Can be null.
+     * @param targetState - New device state.
+     * @param limit - Maximum number of devices to update.
+     * @return - Updated device IDs.
+     */
+    DeviceBulkStateResponseDto updateDeviceStates(String brand, DeviceState state, DeviceState targetState, int limit);
 
     /**
      * Get devices by brand and/or state.
      * @param brand - Brand name. Can be null.
      * @param state - Device state. Can be null.
      * @param pageable - Pageable object.
+     * @param estimatedTotal - Use the planner estimate instead of the tracked total for unfiltered listings.
      * @return - Page of device DTO objects.
      */
-    Page<DeviceResponseDto> getDevices(String brand, DeviceState state, Pageable pageable);
+    Page<DeviceResponseDto> getDevices(String brand, DeviceState state, Pageable pageable, boolean estimatedTotal);
+
+    /**
+     * Get an entity tag for device listings. The tag changes whenever any device is created, updated or deleted, so
+     * it can validate cached pages of every filter.
+     * @return - Entity tag value without quotes, or empty if listings cannot be validated right now.
+     */
+    Optional<String> getDevicesTag();
+
+    /**
+     * Get the number of devices per state and per brand.
+     * @return - DTO object with the totals, served from the tracked device totals.
+     * @throws com.interview.exception.ServiceOverloadedException - If the totals are not loaded yet.
+     */
+    DeviceStatsResponseDto getDeviceStats();
+
+    /**
+     * Get the most used brands starting with a prefix.
+     * @param prefix - Brand prefix, case-insensitive. An empty prefix matches all brands.
+     * @param limit - Maximum number of brands.
+     * @return - DTO objects with the brand totals, the most used brand first.
+     * @throws com.interview.exception.ServiceOverloadedException - If the totals are not loaded yet.
+     */
+    List<DeviceBrandStatsDto> suggestBrands(String prefix, int limit);
+
+    /**
+     * Get devices by brand and/or state using cursor (keyset) pagination.
+     * No total count is calculated, and the cost of a slice does not depend on its position.
+     * @param brand - Brand name. Can be null.
+     * @param state - Device state. Can be null.
+     * @param cursor - Cursor returned with the previous slice. Null or blank for the first slice.
+     * @param size - Slice size.
+     * @param sort - Sort by a single property. Must match the cursor sort when a cursor is given.
+     * @return - Slice of device DTO objects with the cursor of the next slice.
+     */
+    DeviceSliceResponseDto scrollDevices(String brand, DeviceState state, String cursor, int size, Sort sort);
+
+    /**
+     * Export devices by brand and/or state ordered by id. Devices are read through a database cursor and passed to
+     * the consumer one by one, so memory use does not depend on the number of devices.
+     * @param brand - Brand name. Can be null.
+     * @param state - Device state. Can be null.
+     * @param consumer - Receives every exported device.
+     */
+    void exportDevices(String brand, DeviceState state, Consumer<DeviceResponseDto> consumer);
 
 }
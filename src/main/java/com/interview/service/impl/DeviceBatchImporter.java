@@ -0,0 +1,168 @@
+package com.interview.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.DeviceBatchItemResultDto;
+import com.interview.dto.DeviceBatchResponseDto;
+import com.interview.dto.DeviceCreateRequestDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceBatchItemStatus;
+import com.interview.exception.DeviceValidationException;
+import com.interview.service.DeviceService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Creates devices from a JSON array that is parsed as a stream, so only one batch of devices is held in memory.
+ * Every item is validated on its own. Valid items are created in batches of {@code device.batch.size},
+ * each in its own transaction, and the outcome of every item is reported in request order. The reported outcomes
+ * are kept until the response is written, so at most {@code device.batch.max-items} items are processed per request.
+ */
+@Service
+public class DeviceBatchImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceBatchImporter.class);
+
+    private final DeviceService deviceService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxItems;
+
+    public DeviceBatchImporter(DeviceService deviceService, ObjectMapper objectMapper, Validator validator,
+                               @Value("${device.batch.size:100}") int batchSize,
+                               @Value("${device.batch.max-items:10000}") int maxItems) {
+        this.deviceService = deviceService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Create devices from a JSON array of {@link DeviceCreateRequestDto} objects.
+     * @param body - Request body stream.
+     * @return - Counts and per-item results.
+     * @throws IOException - If the body cannot be read.
+     */
+    public DeviceBatchResponseDto importDevices(InputStream body) throws IOException {
+        List<DeviceBatchItemResultDto> results = new ArrayList<>();
+        List<DeviceCreateRequestDto> batch = new ArrayList<>(batchSize);
+        List<DeviceBatchItemResultDto> batchResults = new ArrayList<>(batchSize);
+        int created = 0;
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (firstToken(parser) != JsonToken.START_ARRAY) {
+                throw new DeviceValidationException("Request body must be a JSON array of devices");
+            }
+
+            int index = 0;
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken(), index++) {
+                    if (token == null) {
+                        throw new DeviceValidationException("Unexpected end of the JSON array");
+                    }
+                    if (index == maxItems) {
+                        // stops like malformed JSON does, the devices stored so far are kept
+                        results.add(new DeviceBatchItemResultDto(index, DeviceBatchItemStatus.INVALID, null,
+                                List.of("Batch is limited to " + maxItems + " items, the remaining items were not processed")));
+                        break;
+                    }
+
+                    // a single item is read as a tree, so a mapping error does not break the stream
+                    JsonNode item = objectMapper.readTree(parser);
+                    DeviceBatchItemResultDto result = new DeviceBatchItemResultDto(index, null, null, null);
+                    results.add(result);
+
+                    List<String> errors;
+                    DeviceCreateRequestDto createDto = null;
+                    try {
+                        createDto = item.isObject() ? objectMapper.treeToValue(item, DeviceCreateRequestDto.class) : null;
+                        errors = createDto == null ? List.of("Item must be a JSON object") : validate(createDto);
+                    } catch (JsonProcessingException ex) {
+                        errors = List.of("Invalid item: " + ex.getOriginalMessage());
+                    }
+
+                    if (!errors.isEmpty()) {
+                        result.setStatus(DeviceBatchItemStatus.INVALID);
+                        result.setErrors(errors);
+                        continue;
+                    }
+
+                    batch.add(createDto);
+                    batchResults.add(result);
+                    if (batch.size() == batchSize) {
+                        created += flush(batch, batchResults);
+                    }
+                }
+            } catch (JsonProcessingException ex) {
+                // items after malformed JSON cannot be located, so parsing stops and earlier items are kept
+                results.add(new DeviceBatchItemResultDto(index, DeviceBatchItemStatus.INVALID, null,
+                        List.of("Malformed JSON: " + ex.getOriginalMessage())));
+            }
+        }
+        created += flush(batch, batchResults);
+
+        return new DeviceBatchResponseDto(created, results.size() - created, results);
+    }
+
+    private int flush(List<DeviceCreateRequestDto> batch, List<DeviceBatchItemResultDto> batchResults) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int created = 0;
+
+        try {
+            List<DeviceResponseDto> devices = deviceService.createDevices(batch);
+            for (int i = 0; i < devices.size(); i++) {
+                batchResults.get(i).setStatus(DeviceBatchItemStatus.CREATED);
+                batchResults.get(i).setId(devices.get(i).getId());
+            }
+            created = devices.size();
+        } catch (DataAccessException ex) {
+            log.warn("Failed to create a batch of {} devices", batch.size(), ex);
+            batchResults.forEach(result -> reject(result, DeviceBatchItemStatus.FAILED,
+                    "Batch could not be stored: " + ex.getMostSpecificCause().getMessage()));
+        }
+
+        batch.clear();
+        batchResults.clear();
+        return created;
+    }
+
+    private static JsonToken firstToken(JsonParser parser) throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+    }
+
+    private List<String> validate(DeviceCreateRequestDto createDto) {
+        Set<ConstraintViolation<DeviceCreateRequestDto>> violations = validator.validate(createDto);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private static void reject(DeviceBatchItemResultDto result, DeviceBatchItemStatus status, String error) {
+        result.setStatus(status);
+        result.setErrors(List.of(error));
+    }
+
+}
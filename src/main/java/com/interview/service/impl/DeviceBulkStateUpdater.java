@@ -0,0 +1,63 @@
+package com.interview.service.impl;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.interview.dto.DeviceBulkStateRequestDto;
+import com.interview.dto.DeviceBulkStateResponseDto;
+import com.interview.exception.DeviceValidationException;
+import com.interview.service.DeviceService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves devices selected by ids or by a brand and/or state filter to a new state. Devices are updated with
+ * set-based statements in chunks of {@code device.bulk.chunk-size}, each in its own transaction, so row locks
+ * are held only for one chunk. Chunks committed before a failure stay committed.
+ */
+@Service
+public class DeviceBulkStateUpdater {
+
+    private final DeviceService deviceService;
+    private final int chunkSize;
+
+    public DeviceBulkStateUpdater(DeviceService deviceService, @Value("${device.bulk.chunk-size:1000}") int chunkSize) {
+        this.deviceService = deviceService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Move the selected devices to the target state.
+     * @param request - Selected devices and the target state.
+     * @return - Updated, unchanged and not found device IDs.
+     */
+    public DeviceBulkStateResponseDto updateStates(DeviceBulkStateRequestDto request) {
+        boolean byIds = request.getIds() != null;
+        boolean byFilter = request.getBrand() != null || request.getState() != null;
+        if (byIds == byFilter) {
+            throw new DeviceValidationException("Either ids or a brand and/or state filter is required");
+        }
+
+        DeviceBulkStateResponseDto result = new DeviceBulkStateResponseDto();
+        if (byIds) {
+            List<Long> ids = request.getIds().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                result.add(deviceService.updateDeviceStates(chunk, request.getTargetState()));
+            }
+        } else {
+            // updated devices no longer match, so every chunk continues with the remaining ones
+            DeviceBulkStateResponseDto chunk;
+            do {
+                chunk = deviceService.updateDeviceStates(request.getBrand(), request.getState(),
+                        request.getTargetState(), chunkSize);
+                result.add(chunk);
+            } while (chunk.getUpdated().size() == chunkSize);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.interview.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.service.DeviceService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes devices as newline-delimited JSON (one {@link DeviceResponseDto} per line). Devices are serialized as
+ * they are read from the database cursor and written through the generator buffer, so neither the result set
+ * nor the response body is held in memory.
+ */
+@Service
+public class DeviceExporter {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final DeviceService deviceService;
+    private final ObjectWriter writer;
+
+    public DeviceExporter(DeviceService deviceService, ObjectMapper objectMapper) {
+        this.deviceService = deviceService;
+        // lines are terminated explicitly, and the generator flushes when its buffer is full, not after every device
+        this.writer = objectMapper.writerFor(DeviceResponseDto.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write devices by brand and/or state to the output stream, ordered by id.
+     * @param brand - Brand name. Can be null.
+     * @param state - Device state. Can be null.
+     * @param out - Target stream. Not closed by this method.
+     * @throws IOException - If the stream cannot be written.
+     */
+    public void exportDevices(String brand, DeviceState state, OutputStream out) throws IOException {
+        try (JsonGenerator generator = writer.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            deviceService.exportDevices(brand, state, device -> {
+                try {
+                    writer.writeValue(generator, device);
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.interview.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.interview.dto.DeviceCreateRequestDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.exception.ServiceOverloadedException;
+import com.interview.service.DeviceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Creates single devices in group commits when {@code device.create.group-commit.enabled} is set. Callers put their
+ * request in a bounded queue and wait, a single committer thread takes up to {@code device.create.group-commit.size}
+ * queued requests, waiting at most {@code device.create.group-commit.max-delay} for a group to fill, and creates them
+ * in one transaction. Every caller gets its own device once the group is committed. A failed group is retried one
+ * device at a time, so a single bad request does not fail the others. When the queue is full callers are rejected
+ * with {@link ServiceOverloadedException} instead of waiting.
+ * Group sizes are recorded as the {@code device.create.group.size} metric.
+ */
+@Service
+public class DeviceGroupCommitter {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceGroupCommitter.class);
+
+    // how often an idle committer checks whether it is stopped
+    private static final long IDLE_POLL_MILLIS = 200;
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final DeviceService deviceService;
+    private final boolean enabled;
+    private final int groupSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingCreate> queue;
+    private final DistributionSummary groupSizes;
+    private final Counter rejected;
+
+    private volatile boolean running;
+    private Thread committer;
+
+    public DeviceGroupCommitter(DeviceService deviceService,
+                                @Value("${device.create.group-commit.enabled:false}") boolean enabled,
+                                @Value("${device.create.group-commit.size:100}") int groupSize,
+                                @Value("${device.create.group-commit.max-delay:PT0.01S}") Duration maxDelay,
+                                @Value("${device.create.group-commit.queue-capacity:1000}") int queueCapacity,
+                                MeterRegistry meterRegistry) {
+        this.deviceService = deviceService;
+        this.enabled = enabled;
+        this.groupSize = groupSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.groupSizes = DistributionSummary.builder("device.create.group.size")
+                .description("Devices created per group commit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("device.create.rejected")
+                .description("Device creations rejected because the group commit queue was full")
+                .register(meterRegistry);
+        Gauge.builder("device.create.queue", queue, BlockingQueue::size)
+                .description("Device creations waiting for a group commit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return - Whether single devices are created in group commits.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Create a device in the next group commit and wait until the group is committed.
+     * @param createDto - Device to create.
+     * @return - Created device.
+     * @throws ServiceOverloadedException - If the queue is full or the committer is stopped.
+     */
+    public DeviceResponseDto createDevice(DeviceCreateRequestDto createDto) {
+        PendingCreate pending = new PendingCreate(createDto, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many devices waiting to be created, please retry", RETRY_AFTER);
+        }
+
+        try {
+            return pending.result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            // the device is still created with its group
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the device to be created", e);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        committer = Thread.ofPlatform()
+                .name("device-group-commit")
+                .daemon()
+                .start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (committer == null) {
+            return;
+        }
+
+        // the committer commits what is queued before it exits
+        running = false;
+        committer.join();
+        List<PendingCreate> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.result.completeExceptionally(
+                new ServiceOverloadedException("Service is shutting down, please retry", RETRY_AFTER)));
+    }
+
+    private void run() {
+        List<PendingCreate> group = new ArrayList<>(groupSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                fill(group, System.nanoTime() + maxDelayNanos);
+            } catch (InterruptedException e) {
+                // not interrupted by stop, keep committing
+                log.warn("Device group committer interrupted");
+            }
+
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void fill(List<PendingCreate> group, long deadline) throws InterruptedException {
+        while (group.size() < groupSize) {
+            // requests queued during the previous commit are taken without waiting
+            if (queue.drainTo(group, groupSize - group.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<PendingCreate> group) {
+        groupSizes.record(group.size());
+        try {
+            List<DeviceResponseDto> devices = deviceService.createDevices(group.stream()
+                    .map(PendingCreate::request)
+                    .toList());
+            for (int i = 0; i < devices.size(); i++) {
+                group.get(i).result.complete(devices.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).result.completeExceptionally(e);
+            } else {
+                log.warn("Group commit of {} devices failed, creating them one by one", group.size(), e);
+                group.forEach(this::commitAlone);
+            }
+        } finally {
+            // a caller must never wait for a group that ended without its device
+            group.forEach(pending -> pending.result.completeExceptionally(
+                    new IllegalStateException("Device was not created by its group commit")));
+        }
+    }
+
+    private void commitAlone(PendingCreate pending) {
+        try {
+            pending.result.complete(deviceService.createDevice(pending.request));
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private record PendingCreate(DeviceCreateRequestDto request, CompletableFuture<DeviceResponseDto> result) {
+    }
+
+}
@@ -1,33 +1,80 @@
 package com.interview.service.impl;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.interview.cache.DeviceCache;
+import com.interview.cache.DeviceCountTracker;
+import com.interview.cache.DeviceListTag;
+import com.interview.dto.DeviceBrandStatsDto;
+import com.interview.dto.DeviceBulkStateResponseDto;
 import com.interview.dto.DeviceCreateRequestDto;
 import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceSliceResponseDto;
+import com.interview.dto.DeviceStatsResponseDto;
 import com.interview.dto.DeviceUpdateRequestDto;
 import com.interview.entity.DeviceEntity;
 import com.interview.enums.DeviceState;
+import com.interview.event.DeviceChangedEvent;
 import com.interview.exception.DeviceNotFoundException;
+import com.interview.exception.DevicePreconditionFailedException;
 import com.interview.exception.DeviceValidationException;
+import com.interview.exception.ServiceOverloadedException;
 import com.interview.mapper.DeviceMapper;
+import com.interview.pagination.DeviceCursor;
+import com.interview.replica.ReplicaRoutingContext;
 import com.interview.repository.DeviceRepository;
+import com.interview.repository.DeviceStateChange;
 import com.interview.service.DeviceService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Device service implementation to handle business logic with {@link com.interview.entity.DeviceEntity}.
+ * Every method is timed as the {@code device.service} metric with {@code class} and {@code method} tags.
  */
 @Service
+@Timed("device.service")
 @Transactional(readOnly = true)
 public class DeviceServiceImpl implements DeviceService {
 
+    static final int MAX_SLICE_SIZE = 1000;
+    static final int MAX_BRAND_SUGGESTIONS = 100;
+
+    private static final Duration COUNTS_RETRY_AFTER = Duration.ofSeconds(5);
+
     private final DeviceRepository deviceRepository;
     private final DeviceMapper deviceMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeviceCountTracker deviceCountTracker;
+    private final DeviceCache deviceCache;
+    private final DeviceListTag deviceListTag;
 
-    public DeviceServiceImpl(DeviceRepository deviceRepository, DeviceMapper deviceMapper) {
+    public DeviceServiceImpl(DeviceRepository deviceRepository, DeviceMapper deviceMapper,
+                             ApplicationEventPublisher eventPublisher, DeviceCountTracker deviceCountTracker,
+                             DeviceCache deviceCache, DeviceListTag deviceListTag) {
         this.deviceRepository = deviceRepository;
         this.deviceMapper = deviceMapper;
+        this.eventPublisher = eventPublisher;
+        this.deviceCountTracker = deviceCountTracker;
+        this.deviceCache = deviceCache;
+        this.deviceListTag = deviceListTag;
     }
 
     @Override
@@ -36,57 +83,246 @@ public class DeviceServiceImpl implements DeviceService {
         DeviceEntity newEntity = deviceMapper.toEntity(createDto);
         newEntity.setState(DeviceState.AVAILABLE);
         DeviceEntity savedDevice = deviceRepository.save(newEntity);
-        return deviceMapper.toResponseDto(savedDevice);
+        // ids come from the sequence, so the insert (and the creation timestamp) is deferred until flush
+        deviceRepository.flush();
+        DeviceResponseDto response = deviceMapper.toResponseDto(savedDevice);
+        eventPublisher.publishEvent(DeviceChangedEvent.created(response));
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public List<DeviceResponseDto> createDevices(List<DeviceCreateRequestDto> createDtos) {
+        List<DeviceEntity> newEntities = createDtos.stream()
+                .map(deviceMapper::toEntity)
+                .toList();
+        newEntities.forEach(entity -> entity.setState(DeviceState.AVAILABLE));
+
+        List<DeviceEntity> savedDevices = deviceRepository.saveAll(newEntities);
+        // executes the batched inserts, which also sets the creation timestamps
+        deviceRepository.flush();
+        List<DeviceResponseDto> responses = savedDevices.stream()
+                .map(deviceMapper::toResponseDto)
+                .toList();
+        responses.forEach(response -> eventPublisher.publishEvent(DeviceChangedEvent.created(response)));
+        return responses;
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public DeviceResponseDto getDeviceById(Long id) {
-        DeviceEntity entity = deviceRepository.findById(id)
-                .orElseThrow(() -> new DeviceNotFoundException(id));
-        return deviceMapper.toResponseDto(entity);
+        // no transaction of its own, so a cache hit does not take a database connection. Concurrent misses for the
+        // same device wait for a single query. Misses are explicitly read from the primary, a lagging replica would
+        // put a stale device back into the cache right after its change evicted it
+        return deviceCache.get(id).orElseGet(() -> deviceCache.load(id, key -> ReplicaRoutingContext.onPrimary(
+                () -> deviceRepository.findResponseById(key).orElseThrow(() -> new DeviceNotFoundException(key)))));
     }
 
     @Override
     @Transactional
     public void deleteDevice(Long id) {
-        DeviceEntity entity = deviceRepository.findById(id)
-                .orElseThrow(() -> new DeviceNotFoundException(id));
-
-        if (entity.getState() == DeviceState.IN_USE) {
-            throw new DeviceValidationException("Cannot delete device that is currently in use");
-        }
+        // checks the state and deletes in one statement, the device is only looked up to explain a failure
+        DeviceResponseDto deleted = deviceRepository.deleteUnlessInUse(id).orElseThrow(() -> {
+            if (deviceRepository.existsById(id)) {
+                return new DeviceValidationException("Cannot delete device that is currently in use");
+            }
+            return new DeviceNotFoundException(id);
+        });
 
-        deviceRepository.deleteById(id);
+        eventPublisher.publishEvent(DeviceChangedEvent.deleted(deleted));
     }
 
     @Override
     @Transactional
-    public DeviceResponseDto updateDevice(Long id, DeviceUpdateRequestDto updateDto) {
+    public DeviceResponseDto updateDevice(Long id, DeviceUpdateRequestDto updateDto, Long expectedVersion) {
         DeviceEntity deviceEntity = deviceRepository.findById(id)
                 .orElseThrow(() -> new DeviceNotFoundException(id));
 
+        if (expectedVersion != null && !expectedVersion.equals(deviceEntity.getVersion())) {
+            throw new DevicePreconditionFailedException(id, expectedVersion);
+        }
         validateUpdate(deviceEntity, updateDto);
+        DeviceResponseDto previous = deviceMapper.toResponseDto(deviceEntity);
         deviceMapper.updateEntity(deviceEntity, updateDto);
 
         DeviceEntity updatedDeviceEntity = deviceRepository.save(deviceEntity);
-        return deviceMapper.toResponseDto(updatedDeviceEntity);
+        try {
+            // the update only matches the version that was validated, a concurrent change fails it instead of
+            // being overwritten. A concurrent change that moved the device to another state partition fails it as
+            // well, with a pessimistic locking failure. Also increments the version, which is part of the response
+            deviceRepository.flush();
+        } catch (ConcurrencyFailureException e) {
+            if (expectedVersion != null) {
+                throw new DevicePreconditionFailedException(id, expectedVersion);
+            }
+            throw e;
+        }
+        DeviceResponseDto response = deviceMapper.toResponseDto(updatedDeviceEntity);
+        eventPublisher.publishEvent(DeviceChangedEvent.updated(previous, response));
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public DeviceBulkStateResponseDto updateDeviceStates(List<Long> ids, DeviceState targetState) {
+        List<Long> updated = publishStateChanges(deviceRepository.updateStateByIds(ids, targetState));
+        if (updated.size() == ids.size()) {
+            return new DeviceBulkStateResponseDto(updated, List.of(), List.of());
+        }
+
+        // only devices that were not updated are looked up, to tell unchanged ones from missing ones
+        Set<Long> updatedIds = new HashSet<>(updated);
+        List<Long> remaining = ids.stream()
+                .filter(id -> !updatedIds.contains(id))
+                .toList();
+        Set<Long> existing = new HashSet<>(deviceRepository.findIdsByIdIn(remaining));
+        Map<Boolean, List<Long>> found = remaining.stream()
+                .collect(Collectors.partitioningBy(existing::contains));
+        return new DeviceBulkStateResponseDto(updated, found.get(true), found.get(false));
+    }
+
+    @Override
+    @Transactional
+    public DeviceBulkStateResponseDto updateDeviceStates(String brand, DeviceState state, DeviceState targetState,
+                                                         int limit) {
+        List<Long> updated = publishStateChanges(deviceRepository.updateStateByFilter(brand, state, targetState, limit));
+        return new DeviceBulkStateResponseDto(updated, List.of(), List.of());
     }
 
     @Override
-    public Page<DeviceResponseDto> getDevices(String brand, DeviceState state, Pageable pageable) {
-        Page<DeviceEntity> devices;
+    public Page<DeviceResponseDto> getDevices(String brand, DeviceState state, Pageable pageable, boolean estimatedTotal) {
+        List<DeviceResponseDto> content;
 
         if (brand != null && state != null) {
-            devices = deviceRepository.findByBrandIgnoreCaseAndState(brand, state, pageable);
+            content = deviceRepository.findListByBrandIgnoreCaseAndState(brand, state, pageable);
         } else if (brand != null) {
-            devices = deviceRepository.findByBrandIgnoreCase(brand, pageable);
+            content = deviceRepository.findListByBrandIgnoreCase(brand, pageable);
         } else if (state != null) {
-            devices = deviceRepository.findByState(state, pageable);
+            content = deviceRepository.findListByState(state, pageable);
         } else {
-            devices = deviceRepository.findAll(pageable);
+            content = deviceRepository.findList(pageable);
+        }
+
+        // the total is only resolved when it cannot be derived from the page itself
+        return PageableExecutionUtils.getPage(content, pageable, () -> countDevices(brand, state, estimatedTotal));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<String> getDevicesTag() {
+        // maintained from device changes, so validating a listing reads nothing from the database
+        return deviceListTag.current();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DeviceStatsResponseDto getDeviceStats() {
+        // the aggregate query scans the whole table, so it is never run per request
+        return deviceCountTracker.stats()
+                .orElseThrow(DeviceServiceImpl::countsNotLoaded);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DeviceBrandStatsDto> suggestBrands(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_BRAND_SUGGESTIONS) {
+            throw new DeviceValidationException("Suggestion limit must be between 1 and " + MAX_BRAND_SUGGESTIONS);
         }
+        // a LIKE on the brand cannot use the lower-cased brand index, the tracked brands are searched instead
+        return deviceCountTracker.suggestBrands(prefix, limit)
+                .orElseThrow(DeviceServiceImpl::countsNotLoaded);
+    }
+
+    @Override
+    public DeviceSliceResponseDto scrollDevices(String brand, DeviceState state, String cursor, int size, Sort sort) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new DeviceValidationException("Slice size must be between 1 and " + MAX_SLICE_SIZE);
+        }
+
+        DeviceCursor position;
+        if (cursor == null || cursor.isBlank()) {
+            position = DeviceCursor.first(sort);
+        } else {
+            position = DeviceCursor.decode(cursor);
+            if (!position.matches(sort)) {
+                throw new DeviceValidationException("Sort cannot be changed while paginating with a cursor");
+            }
+        }
+
+        // one extra row tells whether a next slice exists without a count query
+        int limit = size + 1;
+        List<DeviceResponseDto> devices;
+
+        if (brand != null && state != null) {
+            devices = deviceRepository.seekByBrandIgnoreCaseAndState(brand, state, position, limit);
+        } else if (brand != null) {
+            devices = deviceRepository.seekByBrandIgnoreCase(brand, position, limit);
+        } else if (state != null) {
+            devices = deviceRepository.seekByState(state, position, limit);
+        } else {
+            devices = deviceRepository.seekAll(position, limit);
+        }
+
+        boolean hasNext = devices.size() > size;
+        List<DeviceResponseDto> content = hasNext ? devices.subList(0, size) : devices;
+        String nextCursor = hasNext ? position.after(content.getLast()).encode() : null;
+
+        return new DeviceSliceResponseDto(content, size, hasNext, nextCursor);
+    }
+
+    @Override
+    public void exportDevices(String brand, DeviceState state, Consumer<DeviceResponseDto> consumer) {
+        Stream<DeviceResponseDto> devices;
+
+        if (brand != null && state != null) {
+            devices = deviceRepository.streamByBrandIgnoreCaseAndState(brand, state);
+        } else if (brand != null) {
+            devices = deviceRepository.streamByBrandIgnoreCase(brand);
+        } else if (state != null) {
+            devices = deviceRepository.streamByState(state);
+        } else {
+            devices = deviceRepository.streamAll();
+        }
+
+        // projected rows never enter the persistence context, so it stays empty however many are exported
+        try (devices) {
+            devices.forEach(consumer);
+        }
+    }
+
+    private static ServiceOverloadedException countsNotLoaded() {
+        return new ServiceOverloadedException("Device totals are not loaded yet, please retry", COUNTS_RETRY_AFTER);
+    }
+
+    private long countDevices(String brand, DeviceState state, boolean estimatedTotal) {
+        if (estimatedTotal && brand == null && state == null) {
+            long estimate = deviceRepository.estimateCount();
+            if (estimate >= 0) {
+                return estimate;
+            }
+        }
+
+        OptionalLong tracked = deviceCountTracker.count(brand, state);
+        if (tracked.isPresent()) {
+            return tracked.getAsLong();
+        }
+
+        if (brand != null && state != null) {
+            return deviceRepository.countByBrandIgnoreCaseAndState(brand, state);
+        } else if (brand != null) {
+            return deviceRepository.countByBrandIgnoreCase(brand);
+        } else if (state != null) {
+            return deviceRepository.countByState(state);
+        }
+        return deviceRepository.count();
+    }
 
-        return devices.map(deviceMapper::toResponseDto);
+    private List<Long> publishStateChanges(List<DeviceStateChange> changes) {
+        // validateUpdate only restricts the name and brand of devices in use, the state may change from any state
+        changes.forEach(change -> eventPublisher.publishEvent(DeviceChangedEvent.updated(change.previous(), change.device())));
+        return changes.stream()
+                .map(change -> change.device().getId())
+                .toList();
     }
 
     private void validateUpdate(DeviceEntity deviceEntity, DeviceUpdateRequestDto updateDto) {
@@ -0,0 +1,3 @@
+CREATE INDEX idx_device_name_id ON device(name, id);
+CREATE INDEX idx_device_brand_id ON device(brand, id);
+CREATE INDEX idx_device_creation_time_id ON device(creation_time, id);
@@ -0,0 +1,3 @@
+-- Hibernate allocates ids in blocks of 50 (pooled optimizer), which allows JDBC insert batching.
+-- The increment must match the allocationSize of DeviceEntity.
+ALTER SEQUENCE device_id_seq INCREMENT BY 50;
@@ -0,0 +1,2 @@
+-- Row version, incremented by Hibernate on every update. Used for ETags.
+ALTER TABLE device ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- Running application instances, registered and kept alive by the outbox relay of each instance.
+CREATE TABLE device_outbox_node (
+    node_id VARCHAR(100) PRIMARY KEY,
+    heartbeat_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Device changes to deliver to other instances, one row per change and receiving instance.
+-- Rows are written in the transaction of the change and deleted by the relay of the receiving instance.
+CREATE TABLE device_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    node_id VARCHAR(100) NOT NULL,
+    device_id BIGINT NOT NULL,
+    change_type VARCHAR(20) NOT NULL,
+    creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_device_outbox_node_id ON device_outbox(node_id, id);
+CREATE INDEX idx_device_outbox_creation_time ON device_outbox(creation_time);
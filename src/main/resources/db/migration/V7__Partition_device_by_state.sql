@@ -0,0 +1,44 @@
+-- Splits devices into a hot partition with AVAILABLE and IN_USE devices and a cold partition with INACTIVE ones.
+-- Queries filtering by state only touch the partition of that state, so the hot partition and its indexes stay small
+-- however many devices are retired. Changes between AVAILABLE and IN_USE stay within the hot partition, changes to
+-- and from INACTIVE move the row to the other partition.
+-- The table is copied while it is locked, plan downtime proportional to its size.
+
+ALTER TABLE device RENAME TO device_unpartitioned;
+-- the id sequence would otherwise be dropped with the old table
+ALTER SEQUENCE device_id_seq OWNED BY NONE;
+
+-- the primary key of a partitioned table must contain the partition key. Ids stay unique as they come from the
+-- sequence
+CREATE TABLE device (
+    id BIGINT NOT NULL DEFAULT nextval('device_id_seq'),
+    name VARCHAR(255) NOT NULL,
+    brand VARCHAR(255) NOT NULL,
+    state VARCHAR(50) NOT NULL CHECK (state IN ('AVAILABLE', 'IN_USE', 'INACTIVE')),
+    creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, state)
+) PARTITION BY LIST (state);
+
+CREATE TABLE device_hot PARTITION OF device FOR VALUES IN ('AVAILABLE', 'IN_USE');
+CREATE TABLE device_cold PARTITION OF device FOR VALUES IN ('INACTIVE');
+
+ALTER SEQUENCE device_id_seq OWNED BY device.id;
+
+INSERT INTO device (id, name, brand, state, creation_time, version)
+SELECT id, name, brand, state, creation_time, version
+FROM device_unpartitioned;
+
+DROP TABLE device_unpartitioned;
+
+-- indexes of the partitioned table are created on every partition
+CREATE INDEX idx_device_lower_brand ON device(LOWER(brand));
+CREATE INDEX idx_device_creation_time ON device(creation_time);
+CREATE INDEX idx_device_name_id ON device(name, id);
+CREATE INDEX idx_device_brand_id ON device(brand, id);
+CREATE INDEX idx_device_creation_time_id ON device(creation_time, id);
+
+-- the state only tells devices apart within the hot partition
+CREATE INDEX idx_device_hot_state ON device_hot(state);
+
+ANALYZE device;
@@ -0,0 +1,12 @@
+-- Listings filtered by brand are sorted by any allowed property. With the brand index alone, the planner either reads
+-- every device of the brand and sorts them, or walks a sort index and discards the other brands. Both read thousands
+-- of pages for brands of medium popularity. These indexes return the devices of a brand in sort order.
+-- Within a partition the state is constant or takes two values, so the same indexes serve listings filtered by brand
+-- and state.
+CREATE INDEX idx_device_lower_brand_id ON device(LOWER(brand), id);
+CREATE INDEX idx_device_lower_brand_name_id ON device(LOWER(brand), name, id);
+CREATE INDEX idx_device_lower_brand_brand_id ON device(LOWER(brand), brand, id);
+CREATE INDEX idx_device_lower_brand_creation_time_id ON device(LOWER(brand), creation_time, id);
+
+-- covered by idx_device_lower_brand_id
+DROP INDEX idx_device_lower_brand;
@@ -0,0 +1,112 @@
+package com.interview.admission;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdaptiveConcurrencyLimit limit;
+
+    @BeforeEach
+    void setUp() {
+        limit = new AdaptiveConcurrencyLimit("read", 5, 20, 40, 2.0, meterRegistry);
+    }
+
+    @Test
+    void tryAcquire_LimitReached_RejectsRequest() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+
+        assertFalse(limit.tryAcquire());
+        assertEquals(20, limit.getInFlight());
+        assertEquals(1.0, meterRegistry.get("device.admission.rejected").tag("type", "read").counter().count());
+    }
+
+    @Test
+    void release_StableLatencyUnderLoad_GrowsLimitToMaximum() {
+        fill();
+
+        sample(FAST, 100);
+
+        assertEquals(40, limit.getLimit());
+        assertEquals(40.0, meterRegistry.get("device.admission.limit").tag("type", "read").gauge().value());
+    }
+
+    @Test
+    void release_StableLatencyWithoutLoad_KeepsLimit() {
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, false);
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void release_LatencyRises_ShrinksLimitToMinimum() {
+        fill();
+        sample(FAST, 50);
+
+        sample(SLOW, 50);
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void release_LatencyRecovers_GrowsLimitAgain() {
+        fill();
+        sample(FAST, 50);
+        sample(SLOW, 50);
+
+        sample(FAST, 200);
+
+        assertEquals(40, limit.getLimit());
+    }
+
+    @Test
+    void release_FailedRequest_ShrinksLimit() {
+        fill();
+
+        limit.release(FAST, true);
+
+        assertEquals(18, limit.getLimit());
+    }
+
+    @Test
+    void cancel_AdmittedRequest_KeepsLimit() {
+        limit.tryAcquire();
+
+        limit.cancel();
+
+        assertEquals(0, limit.getInFlight());
+        assertEquals(20, limit.getLimit());
+    }
+
+    private void fill() {
+        while (limit.tryAcquire()) {
+            // admit requests up to the limit
+        }
+    }
+
+    // every completed request is replaced, so the limit stays in use
+    private void sample(long latencyNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limit.release(latencyNanos, false);
+            fill();
+        }
+    }
+
+}
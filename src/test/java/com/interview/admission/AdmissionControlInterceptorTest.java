@@ -0,0 +1,101 @@
+package com.interview.admission;
+
+import java.time.Duration;
+
+import com.interview.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private AdaptiveConcurrencyLimit readLimit;
+    private AdaptiveConcurrencyLimit writeLimit;
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        readLimit = new AdaptiveConcurrencyLimit("read", 1, 2, 10, 2.0, meterRegistry);
+        writeLimit = new AdaptiveConcurrencyLimit("write", 1, 1, 10, 2.0, meterRegistry);
+        interceptor = new AdmissionControlInterceptor(readLimit, writeLimit);
+    }
+
+    @Test
+    void preHandle_WriteLimitReached_RejectsWritesButAdmitsReads() {
+        assertTrue(interceptor.preHandle(request("POST"), response, null));
+
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(request("PUT"), response, null));
+
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertTrue(interceptor.preHandle(request("GET"), response, null));
+        assertEquals(1, writeLimit.getInFlight());
+        assertEquals(1, readLimit.getInFlight());
+    }
+
+    @Test
+    void afterCompletion_Dropped_ReleasesAndShrinksLimit() {
+        MockHttpServletRequest request = request("GET");
+        interceptor.preHandle(request, response, null);
+        AdmissionControlInterceptor.markDropped(request);
+        response.setStatus(503);
+
+        interceptor.afterCompletion(request, response, null, null);
+        // a second completion of the same request does not release again
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(0, readLimit.getInFlight());
+        assertEquals(1, readLimit.getLimit());
+    }
+
+    @Test
+    void afterCompletion_OtherErrors_ReleaseWithoutShrinkingLimit() {
+        // a 503 without a drop, such as totals that are not loaded yet
+        for (int status : new int[]{400, 415, 500, 503}) {
+            MockHttpServletRequest request = request("GET");
+            interceptor.preHandle(request, response, null);
+            response.setStatus(status);
+
+            interceptor.afterCompletion(request, response, null, null);
+        }
+
+        assertEquals(0, readLimit.getInFlight());
+        assertEquals(2, readLimit.getLimit());
+    }
+
+    @Test
+    void afterCompletion_UnhandledException_ShrinksLimit() {
+        MockHttpServletRequest request = request("POST");
+        interceptor.preHandle(request, response, null);
+
+        interceptor.afterCompletion(request, response, null, new IllegalStateException("Failed"));
+
+        assertEquals(0, writeLimit.getInFlight());
+        assertEquals(1, writeLimit.getLimit());
+    }
+
+    @Test
+    void afterConcurrentHandlingStarted_AsyncRequest_ReleasesWithoutSample() {
+        MockHttpServletRequest request = request("GET");
+        interceptor.preHandle(request, response, null);
+
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        assertEquals(0, readLimit.getInFlight());
+        assertEquals(2, readLimit.getLimit());
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/api/v1/devices");
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.interview.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceChangeType;
+import com.interview.enums.DeviceState;
+import com.interview.event.DeviceChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeviceCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeviceCache deviceCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deviceCache = new DeviceCache(true, 100, Duration.ofMinutes(1), Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @Test
+    void putLoaded_DoesNotReplaceCommittedChange() {
+        DeviceResponseDto loaded = device(DeviceState.AVAILABLE, 0);
+        DeviceResponseDto updated = device(DeviceState.IN_USE, 1);
+
+        deviceCache.onDeviceChanged(DeviceChangedEvent.updated(loaded, updated));
+        deviceCache.putLoaded(loaded);
+
+        assertSame(updated, deviceCache.get(1L).orElseThrow());
+    }
+
+    @Test
+    void onDeviceChanged_OlderVersion_KeepsNewerEntry() {
+        DeviceResponseDto loaded = device(DeviceState.AVAILABLE, 0);
+        DeviceResponseDto inUse = device(DeviceState.IN_USE, 1);
+        DeviceResponseDto inactive = device(DeviceState.INACTIVE, 2);
+        deviceCache.putLoaded(loaded);
+
+        deviceCache.onDeviceChanged(DeviceChangedEvent.updated(inUse, inactive));
+        deviceCache.onDeviceChanged(DeviceChangedEvent.updated(loaded, inUse));
+
+        assertSame(inactive, deviceCache.get(1L).orElseThrow());
+    }
+
+    @Test
+    void onDeviceChanged_Deleted_InvalidatesEntry() {
+        DeviceResponseDto device = device(DeviceState.AVAILABLE, 0);
+        deviceCache.putLoaded(device);
+
+        deviceCache.onDeviceChanged(DeviceChangedEvent.deleted(device));
+
+        assertTrue(deviceCache.get(1L).isEmpty());
+    }
+
+    @Test
+    void invalidate_ChangeOnOtherInstance_EvictsEntry() {
+        deviceCache.putLoaded(device(DeviceState.AVAILABLE, 0));
+
+        deviceCache.invalidate(1L, DeviceChangeType.UPDATED);
+
+        assertTrue(deviceCache.get(1L).isEmpty());
+    }
+
+    @Test
+    void load_CachesLoadedDevice() {
+        DeviceResponseDto device = device(DeviceState.AVAILABLE, 0);
+
+        DeviceResponseDto result = deviceCache.load(1L, id -> device);
+
+        assertSame(device, result);
+        assertSame(device, deviceCache.get(1L).orElseThrow());
+        assertEquals(1.0, meterRegistry.get(DeviceCache.LOADS_METRIC).tag("result", "loaded").counter().count());
+    }
+
+    @Test
+    void load_DeletedDuringLoad_DoesNotCacheDevice() {
+        DeviceResponseDto device = device(DeviceState.AVAILABLE, 0);
+
+        // the delete commits after the load read the device
+        DeviceResponseDto result = deviceCache.load(1L, id -> {
+            deviceCache.onDeviceChanged(DeviceChangedEvent.deleted(device));
+            return device;
+        });
+
+        assertSame(device, result);
+        assertTrue(deviceCache.get(1L).isEmpty());
+    }
+
+    @Test
+    void load_InvalidatedByOtherInstanceDuringLoad_DoesNotCacheDevice() {
+        deviceCache.load(1L, id -> {
+            deviceCache.invalidate(1L, DeviceChangeType.UPDATED);
+            return device(DeviceState.AVAILABLE, 0);
+        });
+
+        assertTrue(deviceCache.get(1L).isEmpty());
+        assertSame(deviceCache.load(1L, id -> device(DeviceState.IN_USE, 1)), deviceCache.get(1L).orElseThrow());
+    }
+
+    @Test
+    void load_DeletedDuringLoadOfTimedOutCaller_DoesNotCacheEitherLoad() throws Exception {
+        deviceCache = new DeviceCache(true, 100, Duration.ofMinutes(1), Duration.ofMillis(50), meterRegistry);
+        DeviceResponseDto device = device(DeviceState.AVAILABLE, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+
+        CompletableFuture<DeviceResponseDto> first = CompletableFuture.supplyAsync(() -> deviceCache.load(1L, id -> {
+            started.countDown();
+            await(deleted);
+            return device;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // waits too long for the first load and loads on its own, the delete commits while both are in progress
+        deviceCache.load(1L, id -> {
+            deviceCache.onDeviceChanged(DeviceChangedEvent.deleted(device));
+            deleted.countDown();
+            return device;
+        });
+
+        assertSame(device, first.get(5, TimeUnit.SECONDS));
+        assertTrue(deviceCache.get(1L).isEmpty());
+        assertEquals(1.0, meterRegistry.get(DeviceCache.LOADS_METRIC).tag("result", "timeout").counter().count());
+    }
+
+    @Test
+    void get_RecordsHitAndMissMetrics() {
+        deviceCache.get(1L);
+        deviceCache.putLoaded(device(DeviceState.AVAILABLE, 0));
+        deviceCache.get(1L);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "devices").tag("result", "hit").functionCounter());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_Disabled_AlwaysEmpty() {
+        deviceCache = new DeviceCache(false, 100, Duration.ofMinutes(1), Duration.ofSeconds(1), meterRegistry);
+
+        deviceCache.putLoaded(device(DeviceState.AVAILABLE, 0));
+
+        assertTrue(deviceCache.get(1L).isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DeviceResponseDto device(DeviceState state, long version) {
+        return new DeviceResponseDto(1L, "iPhone 15", "Apple", state, LocalDateTime.now(), version);
+    }
+
+}
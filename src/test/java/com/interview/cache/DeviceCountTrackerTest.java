@@ -0,0 +1,212 @@
+package com.interview.cache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import com.interview.dto.DeviceBrandStatsDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceStatsResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.event.DeviceChangedEvent;
+import com.interview.repository.DeviceCount;
+import com.interview.repository.DeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceCountTrackerTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    private DeviceCountTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new DeviceCountTracker(deviceRepository, true);
+    }
+
+    @Test
+    void count_NotLoaded_ReturnsEmpty() {
+        assertTrue(tracker.count(null, null).isEmpty());
+    }
+
+    @Test
+    void reconcile_LoadsTotalsForAllKeys() {
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(
+                count("apple", DeviceState.AVAILABLE, 3),
+                count("apple", DeviceState.IN_USE, 2),
+                count("google", DeviceState.AVAILABLE, 4)
+        ));
+
+        tracker.reconcile();
+
+        assertEquals(OptionalLong.of(3), tracker.count("Apple", DeviceState.AVAILABLE));
+        assertEquals(OptionalLong.of(5), tracker.count("APPLE", null));
+        assertEquals(OptionalLong.of(7), tracker.count(null, DeviceState.AVAILABLE));
+        assertEquals(OptionalLong.of(9), tracker.count(null, null));
+        assertEquals(OptionalLong.of(0), tracker.count("samsung", null));
+    }
+
+    @Test
+    void onDeviceChanged_AppliesCommittedChanges() {
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(count("apple", DeviceState.AVAILABLE, 1)));
+        tracker.reconcile();
+
+        DeviceResponseDto created = device(2L, "Google", DeviceState.AVAILABLE);
+        DeviceResponseDto inUse = device(2L, "Google", DeviceState.IN_USE);
+        tracker.onDeviceChanged(DeviceChangedEvent.created(created));
+        tracker.onDeviceChanged(DeviceChangedEvent.updated(created, inUse));
+        tracker.onDeviceChanged(DeviceChangedEvent.deleted(device(1L, "Apple", DeviceState.AVAILABLE)));
+
+        assertEquals(OptionalLong.of(0), tracker.count(null, DeviceState.AVAILABLE));
+        assertEquals(OptionalLong.of(1), tracker.count("google", DeviceState.IN_USE));
+        assertEquals(OptionalLong.of(1), tracker.count(null, null));
+    }
+
+    @Test
+    void stats_Loaded_ReturnsTotalsPerBrandAndState() {
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(
+                count("google", DeviceState.AVAILABLE, 4),
+                count("apple", DeviceState.AVAILABLE, 3),
+                count("apple", DeviceState.IN_USE, 2)
+        ));
+        tracker.reconcile();
+        tracker.onDeviceChanged(DeviceChangedEvent.deleted(device(1L, "Google", DeviceState.AVAILABLE)));
+
+        DeviceStatsResponseDto stats = tracker.stats().orElseThrow();
+
+        assertEquals(8, stats.getTotal());
+        assertEquals(Map.of(DeviceState.AVAILABLE, 6L, DeviceState.IN_USE, 2L, DeviceState.INACTIVE, 0L), stats.getStates());
+        assertEquals(List.of("apple", "google"), stats.getBrands().stream().map(DeviceBrandStatsDto::getBrand).toList());
+        assertEquals(5, stats.getBrands().get(0).getTotal());
+        assertEquals(3L, stats.getBrands().get(1).getStates().get(DeviceState.AVAILABLE));
+    }
+
+    @Test
+    void suggestBrands_Prefix_ReturnsMostUsedMatchingBrands() {
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(
+                count("samsung", DeviceState.AVAILABLE, 2),
+                count("sony", DeviceState.AVAILABLE, 5),
+                count("sharp", DeviceState.INACTIVE, 2),
+                count("apple", DeviceState.AVAILABLE, 9)
+        ));
+        tracker.reconcile();
+        tracker.onDeviceChanged(DeviceChangedEvent.created(device(1L, "Sigma", DeviceState.AVAILABLE)));
+        tracker.onDeviceChanged(DeviceChangedEvent.deleted(device(1L, "Sigma", DeviceState.AVAILABLE)));
+
+        List<DeviceBrandStatsDto> suggestions = tracker.suggestBrands("S", 2).orElseThrow();
+
+        assertEquals(List.of("sony", "samsung"), suggestions.stream().map(DeviceBrandStatsDto::getBrand).toList());
+        assertEquals(5, suggestions.get(0).getTotal());
+        assertEquals(List.of("samsung", "sharp", "sony"), tracker.suggestBrands("s", 10).orElseThrow().stream()
+                .map(DeviceBrandStatsDto::getBrand).sorted().toList());
+        assertTrue(tracker.suggestBrands("x", 10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void verify_DriftedTotals_ReportsMismatchesWithoutReload() {
+        when(deviceRepository.countByBrandAndState())
+                .thenReturn(List.of(count("apple", DeviceState.AVAILABLE, 3)))
+                .thenReturn(List.of(count("apple", DeviceState.AVAILABLE, 2), count("google", DeviceState.IN_USE, 1)));
+        tracker.reconcile();
+
+        DeviceCountVerification verification = tracker.verify(false);
+
+        assertTrue(verification.tracked());
+        assertEquals(3, verification.total());
+        assertEquals(List.of(
+                new DeviceCountVerification.Mismatch("apple", DeviceState.AVAILABLE, 3, 2),
+                new DeviceCountVerification.Mismatch("google", DeviceState.IN_USE, 0, 1)
+        ), verification.mismatches());
+        assertEquals(OptionalLong.of(3), tracker.count(null, null));
+    }
+
+    @Test
+    void verify_Correct_SameDriftOnTwoChecks_CorrectsTotals() {
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(count("apple", DeviceState.AVAILABLE, 3)));
+        tracker.reconcile();
+        // applied without being committed
+        tracker.onDeviceChanged(DeviceChangedEvent.created(device(2L, "Apple", DeviceState.AVAILABLE)));
+
+        assertFalse(tracker.verify(true).isConsistent());
+        assertEquals(OptionalLong.of(4), tracker.count("apple", DeviceState.AVAILABLE));
+        assertFalse(tracker.verify(true).isConsistent());
+        assertEquals(OptionalLong.of(3), tracker.count("apple", DeviceState.AVAILABLE));
+        assertTrue(tracker.verify(false).isConsistent());
+    }
+
+    @Test
+    void verify_Correct_ChangeCommittedDuringCheck_KeepsChange() {
+        DeviceResponseDto created = device(2L, "Apple", DeviceState.AVAILABLE);
+        when(deviceRepository.countByBrandAndState())
+                .thenReturn(List.of(count("apple", DeviceState.AVAILABLE, 1)))
+                .thenAnswer(invocation -> {
+                    // committed after the database was counted, applied before the check ends
+                    tracker.onDeviceChanged(DeviceChangedEvent.created(created));
+                    return List.of(count("apple", DeviceState.AVAILABLE, 1));
+                })
+                .thenReturn(List.of(count("apple", DeviceState.AVAILABLE, 2)));
+        tracker.reconcile();
+
+        assertFalse(tracker.verify(true).isConsistent());
+        assertTrue(tracker.verify(true).isConsistent());
+        assertEquals(OptionalLong.of(2), tracker.count("apple", DeviceState.AVAILABLE));
+    }
+
+    @Test
+    void verify_NotLoaded_CorrectLoadsTotals() {
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(count("apple", DeviceState.AVAILABLE, 3)));
+
+        assertFalse(tracker.verify(false).tracked());
+        assertTrue(tracker.count(null, null).isEmpty());
+        assertFalse(tracker.verify(true).tracked());
+        assertEquals(OptionalLong.of(3), tracker.count(null, null));
+    }
+
+    @Test
+    void reconcile_PageTotalsDisabled_StillTracksStatistics() {
+        tracker = new DeviceCountTracker(deviceRepository, false);
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(count("apple", DeviceState.AVAILABLE, 3)));
+
+        tracker.reconcile();
+
+        assertTrue(tracker.count(null, null).isEmpty());
+        assertEquals(3, tracker.stats().orElseThrow().getTotal());
+        assertEquals(1, tracker.suggestBrands("ap", 10).orElseThrow().size());
+    }
+
+    private static DeviceResponseDto device(Long id, String brand, DeviceState state) {
+        return new DeviceResponseDto(id, "Device " + id, brand, state, LocalDateTime.now());
+    }
+
+    private static DeviceCount count(String brand, DeviceState state, long total) {
+        return new DeviceCount() {
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public DeviceState getState() {
+                return state;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.interview.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceChangeType;
+import com.interview.enums.DeviceState;
+import com.interview.event.DeviceChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeviceListTagTest {
+
+    @Test
+    void current_ChangesWithLocalAndRemoteChanges() {
+        DeviceListTag tag = new DeviceListTag(List.of(), Duration.ofSeconds(10));
+        String initial = tag.current().orElseThrow();
+
+        tag.onDeviceChanged(DeviceChangedEvent.created(
+                new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, null, 0L)));
+        String created = tag.current().orElseThrow();
+        tag.invalidate(2L, DeviceChangeType.UPDATED);
+        String updated = tag.current().orElseThrow();
+        tag.invalidateAll();
+
+        assertNotEquals(initial, created);
+        assertNotEquals(created, updated);
+        assertNotEquals(updated, tag.current().orElseThrow());
+        assertEquals(tag.current(), tag.current());
+    }
+
+    @Test
+    void current_OtherInstance_DoesNotMatch() {
+        assertNotEquals(new DeviceListTag(List.of(), Duration.ZERO).current(),
+                new DeviceListTag(List.of(), Duration.ZERO).current());
+    }
+
+    @Test
+    void current_RecentChangeWithReplicas_ReturnsEmpty() {
+        DeviceListTag tag = new DeviceListTag(List.of("jdbc:postgresql://replica/devices"), Duration.ofHours(1));
+        assertTrue(tag.current().isPresent());
+
+        tag.invalidate(1L, DeviceChangeType.DELETED);
+
+        assertEquals(Optional.empty(), tag.current());
+    }
+
+}
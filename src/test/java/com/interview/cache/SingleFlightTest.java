@@ -0,0 +1,139 @@
+package com.interview.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final String METRIC = "test.loads";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SingleFlight<Long, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight<>(METRIC, Duration.ofSeconds(10), meterRegistry);
+    }
+
+    @Test
+    void load_ConcurrentCallsForSameKey_ShareOneLoad() throws Exception {
+        CompletableFuture<String> leader = start(key -> blockingLoad("loaded"));
+        loading.await();
+
+        List<Thread> followers = new ArrayList<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<String> result = new CompletableFuture<>();
+            followers.add(Thread.ofVirtual().start(() -> result.complete(singleFlight.load(1L, key -> blockingLoad("own")))));
+            results.add(result);
+        }
+        awaitWaiting(followers);
+        release.countDown();
+
+        assertEquals("loaded", leader.get());
+        for (CompletableFuture<String> result : results) {
+            assertEquals("loaded", result.get());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(10.0, meterRegistry.get(METRIC).tag("result", "coalesced").counter().count());
+        assertEquals(1.0, meterRegistry.get(METRIC).tag("result", "loaded").counter().count());
+    }
+
+    @Test
+    void load_LoadFails_FollowersReceiveException() throws Exception {
+        IllegalStateException failure = new IllegalStateException("failed");
+        CompletableFuture<String> leader = start(key -> {
+            blockingLoad("unused");
+            throw failure;
+        });
+        loading.await();
+
+        CompletableFuture<String> follower = new CompletableFuture<>();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            try {
+                follower.complete(singleFlight.load(1L, key -> "own"));
+            } catch (RuntimeException e) {
+                follower.completeExceptionally(e);
+            }
+        });
+        awaitWaiting(List.of(thread));
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, leader::get).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, follower::get).getCause());
+    }
+
+    @Test
+    void load_LeaderSlowerThanMaxWait_LoadsOnItsOwn() throws Exception {
+        singleFlight = new SingleFlight<>(METRIC, Duration.ofMillis(50), meterRegistry);
+        CompletableFuture<String> leader = start(key -> blockingLoad("loaded"));
+        loading.await();
+
+        String result = singleFlight.load(1L, key -> "own");
+        release.countDown();
+
+        assertEquals("own", result);
+        assertEquals("loaded", leader.get());
+        assertEquals(1.0, meterRegistry.get(METRIC).tag("result", "timeout").counter().count());
+    }
+
+    @Test
+    void load_CompletedLoad_IsNotShared() {
+        assertEquals("first", singleFlight.load(1L, key -> "first"));
+        assertEquals("second", singleFlight.load(1L, key -> "second"));
+    }
+
+    private CompletableFuture<String> start(Function<Long, String> loader) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                result.complete(singleFlight.load(1L, loader));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private String blockingLoad(String value) {
+        loads.incrementAndGet();
+        loading.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        // followers park while they wait for the load, virtual threads report a timed park as WAITING
+        for (Thread thread : threads) {
+            Thread.State state;
+            while ((state = thread.getState()) != Thread.State.WAITING && state != Thread.State.TIMED_WAITING) {
+                assertNotEquals(Thread.State.TERMINATED, state);
+                Thread.sleep(1);
+            }
+        }
+    }
+
+}
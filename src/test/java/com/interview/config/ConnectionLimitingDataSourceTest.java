@@ -0,0 +1,101 @@
+package com.interview.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_CloseReleasesPermitOnce() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection limited = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        limited.close();
+        limited.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void close_ClosesPool() throws Exception {
+        HikariDataSource pool = mock(HikariDataSource.class);
+
+        new ConnectionLimitingDataSource(pool, 2, Duration.ofMillis(50)).close();
+
+        verify(pool).close();
+    }
+
+    @Test
+    void getConnection_AllPermitsTaken_TimesOut() throws SQLException {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+    }
+
+    @Test
+    void getConnection_TargetFails_ReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void getConnection_QueuedRequestProceedsAfterClose() throws Exception {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        ConnectionLimitingDataSource single = new ConnectionLimitingDataSource(target, 1, Duration.ofSeconds(5));
+        Connection first = single.getConnection();
+
+        Thread waiting = Thread.ofVirtual().start(() -> {
+            try (Connection ignored = single.getConnection()) {
+                // acquired after the first connection is closed
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (single.getQueueLength() == 0) {
+            Thread.onSpinWait();
+        }
+        first.close();
+        waiting.join(5_000);
+
+        assertEquals(1, single.getAvailablePermits());
+    }
+
+}
@@ -1,40 +1,86 @@
 package com.interview.contoller;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Map;
 
+import com.interview.admission.AdmissionControlInterceptor;
+import com.interview.config.BinaryFormatConfig;
 import com.interview.controller.DeviceController;
+import com.interview.dto.DeviceBatchItemResultDto;
+import com.interview.dto.DeviceBatchResponseDto;
+import com.interview.dto.DeviceBulkStateRequestDto;
+import com.interview.dto.DeviceBrandStatsDto;
+import com.interview.dto.DeviceBulkStateResponseDto;
 import com.interview.dto.DeviceCreateRequestDto;
 import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceSliceResponseDto;
+import com.interview.dto.DeviceStatsResponseDto;
 import com.interview.dto.DeviceUpdateRequestDto;
+import com.interview.enums.DeviceBatchItemStatus;
 import com.interview.enums.DeviceState;
+import com.interview.event.DeviceChangeFeed;
 import com.interview.exception.DeviceNotFoundException;
+import com.interview.exception.DevicePreconditionFailedException;
 import com.interview.exception.DeviceValidationException;
+import com.interview.exception.ServiceOverloadedException;
 import com.interview.service.DeviceService;
+import com.interview.service.impl.DeviceBatchImporter;
+import com.interview.service.impl.DeviceBulkStateUpdater;
+import com.interview.service.impl.DeviceExporter;
+import com.interview.service.impl.DeviceGroupCommitter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DeviceController.class)
+// registry for the admission control metrics
+@Import(SimpleMeterRegistry.class)
 class DeviceControllerTest {
 
     @Autowired
@@ -43,9 +89,27 @@ class DeviceControllerTest {
     @MockBean
     private DeviceService deviceService;
 
+    @MockBean
+    private DeviceBatchImporter deviceBatchImporter;
+
+    @MockBean
+    private DeviceExporter deviceExporter;
+
+    @MockBean
+    private DeviceBulkStateUpdater deviceBulkStateUpdater;
+
+    @MockBean
+    private DeviceChangeFeed deviceChangeFeed;
+
+    @MockBean
+    private DeviceGroupCommitter deviceGroupCommitter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void createDevice_ValidInput_ReturnsCreated() throws Exception {
         DeviceCreateRequestDto createDto = new DeviceCreateRequestDto("iPhone 15", "Apple");
@@ -64,6 +128,113 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.state").value("AVAILABLE"));
     }
 
+    @Test
+    void createDevice_GroupCommitEnabled_CreatesInGroup() throws Exception {
+        DeviceCreateRequestDto createDto = new DeviceCreateRequestDto("iPhone 15", "Apple");
+        DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple",
+                DeviceState.AVAILABLE, LocalDateTime.now());
+
+        when(deviceGroupCommitter.isEnabled()).thenReturn(true);
+        when(deviceGroupCommitter.createDevice(any(DeviceCreateRequestDto.class))).thenReturn(responseDto);
+
+        mockMvc.perform(post("/api/v1/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verify(deviceService, never()).createDevice(any());
+    }
+
+    @Test
+    void createDevice_GroupCommitQueueFull_ReturnsServiceUnavailable() throws Exception {
+        DeviceCreateRequestDto createDto = new DeviceCreateRequestDto("iPhone 15", "Apple");
+
+        when(deviceGroupCommitter.isEnabled()).thenReturn(true);
+        when(deviceGroupCommitter.createDevice(any(DeviceCreateRequestDto.class)))
+                .thenThrow(new ServiceOverloadedException("Too many devices waiting to be created, please retry",
+                        Duration.ofMillis(1500)));
+
+        mockMvc.perform(post("/api/v1/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.error").value("Service Unavailable"));
+    }
+
+    @Test
+    void createDevice_CborBody_ReturnsCbor() throws Exception {
+        ObjectMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+        DeviceCreateRequestDto createDto = new DeviceCreateRequestDto("iPhone 15", "Apple");
+        DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple",
+                DeviceState.AVAILABLE, LocalDateTime.of(2024, 1, 15, 10, 30));
+
+        when(deviceService.createDevice(any(DeviceCreateRequestDto.class))).thenReturn(responseDto);
+
+        MvcResult result = mockMvc.perform(post("/api/v1/devices")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(createDto)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        DeviceResponseDto created = cborMapper.readValue(result.getResponse().getContentAsByteArray(),
+                DeviceResponseDto.class);
+        assertEquals("iPhone 15", created.getName());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30), created.getCreationTime());
+    }
+
+    @Test
+    void getDevice_AcceptSmile_ReturnsSmile() throws Exception {
+        ObjectMapper smileMapper = SmileMapper.builder().findAndAddModules().build();
+        DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple",
+                DeviceState.AVAILABLE, LocalDateTime.now(), 3L);
+
+        when(deviceService.getDeviceById(1L)).thenReturn(responseDto);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/devices/1")
+                        .accept(BinaryFormatConfig.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-smile\""))
+                .andExpect(content().contentType(BinaryFormatConfig.APPLICATION_SMILE_VALUE))
+                .andReturn();
+
+        assertEquals(1L, smileMapper.readValue(result.getResponse().getContentAsByteArray(),
+                DeviceResponseDto.class).getId());
+    }
+
+    @Test
+    void getDevice_AdmissionControl_ReleasesReadPermit() throws Exception {
+        when(deviceService.getDeviceById(1L)).thenReturn(new DeviceResponseDto(1L, "iPhone 15", "Apple",
+                DeviceState.AVAILABLE, LocalDateTime.now(), 3L));
+
+        mockMvc.perform(get("/api/v1/devices/1"))
+                .andExpect(status().isOk());
+
+        assertEquals(0.0, meterRegistry.get("device.admission.inflight").tag("type", "read").gauge().value());
+        assertEquals(0.0, meterRegistry.get("device.admission.rejected").tag("type", "read").counter().count());
+    }
+
+    @Test
+    void unknownPath_ReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/api-docs"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("No endpoint GET /api-docs"));
+    }
+
+    @Test
+    void getDevice_AnyAccept_ReturnsJson() throws Exception {
+        when(deviceService.getDeviceById(1L)).thenReturn(new DeviceResponseDto(1L, "iPhone 15", "Apple",
+                DeviceState.AVAILABLE, LocalDateTime.now(), 3L));
+
+        mockMvc.perform(get("/api/v1/devices/1")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void createDevice_InvalidInput_ReturnsBadRequest() throws Exception {
         DeviceCreateRequestDto createDto = new DeviceCreateRequestDto("", "");
@@ -87,6 +258,86 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.name").value("iPhone 15"));
     }
 
+    @Test
+    void getDevice_ExistingId_ReturnsVersionAsETag() throws Exception {
+        DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple",
+                DeviceState.AVAILABLE, LocalDateTime.now(), 3L);
+
+        when(deviceService.getDeviceById(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/v1/devices/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void getDevice_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple",
+                DeviceState.AVAILABLE, LocalDateTime.now(), 3L);
+
+        when(deviceService.getDeviceById(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/v1/devices/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getDevice_IfNoneMatchOfOtherFormat_ReturnsDevice() throws Exception {
+        DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple",
+                DeviceState.AVAILABLE, LocalDateTime.now(), 3L);
+
+        when(deviceService.getDeviceById(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/v1/devices/1")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-cbor\""))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void getDeviceStats_ReturnsTotalsPerStateAndBrand() throws Exception {
+        DeviceStatsResponseDto stats = new DeviceStatsResponseDto(3, Map.of(DeviceState.AVAILABLE, 3L),
+                List.of(new DeviceBrandStatsDto("apple", 3, Map.of(DeviceState.AVAILABLE, 3L))));
+
+        when(deviceService.getDeviceStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/api/v1/devices/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.states.AVAILABLE").value(3))
+                .andExpect(jsonPath("$.brands[0].brand").value("apple"))
+                .andExpect(jsonPath("$.brands[0].states.AVAILABLE").value(3));
+    }
+
+    @Test
+    void getDeviceStats_TotalsNotLoaded_ReturnsServiceUnavailableWithoutDrop() throws Exception {
+        when(deviceService.getDeviceStats()).thenThrow(new ServiceOverloadedException(
+                "Device totals are not loaded yet, please retry", Duration.ofSeconds(5)));
+
+        mockMvc.perform(get("/api/v1/devices/stats"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+                .andExpect(request().attribute(AdmissionControlInterceptor.DROPPED_ATTRIBUTE, nullValue()));
+    }
+
+    @Test
+    void suggestBrands_Prefix_ReturnsBrands() throws Exception {
+        when(deviceService.suggestBrands("ap", 10))
+                .thenReturn(List.of(new DeviceBrandStatsDto("apple", 3, Map.of(DeviceState.AVAILABLE, 3L))));
+
+        mockMvc.perform(get("/api/v1/devices/brands/suggest").param("prefix", "ap"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].brand").value("apple"))
+                .andExpect(jsonPath("$[0].total").value(3));
+    }
+
     @Test
     void getDevice_NonExistingId_ReturnsNotFound() throws Exception {
         when(deviceService.getDeviceById(999L)).thenThrow(new DeviceNotFoundException(999L));
@@ -115,7 +366,7 @@ class DeviceControllerTest {
         DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto("Pixel", null, DeviceState.AVAILABLE);
 
         doThrow(new DeviceValidationException("Cannot update name of device that is in use"))
-                .when(deviceService).updateDevice(1L, updateDto);
+                .when(deviceService).updateDevice(1L, updateDto, null);
 
         mockMvc.perform(put("/api/v1/devices/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -128,7 +379,7 @@ class DeviceControllerTest {
         DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, LocalDateTime.now());
         DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto("iPhone 15", "Apple", DeviceState.AVAILABLE);
 
-        when(deviceService.updateDevice(1L, updateDto)).thenReturn(responseDto);
+        when(deviceService.updateDevice(1L, updateDto, null)).thenReturn(responseDto);
 
         mockMvc.perform(put("/api/v1/devices/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -140,6 +391,81 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.state").value("AVAILABLE"));
     }
 
+    @Test
+    void updateDevice_IfMatch_PassesExpectedVersion() throws Exception {
+        DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.IN_USE,
+                LocalDateTime.now(), 4L);
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.IN_USE);
+
+        when(deviceService.updateDevice(1L, updateDto, 3L)).thenReturn(responseDto);
+
+        mockMvc.perform(put("/api/v1/devices/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3-json\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4-json\""));
+    }
+
+    @Test
+    void updateDevice_IfMatchOfOtherFormat_PassesExpectedVersion() throws Exception {
+        DeviceResponseDto responseDto = new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.IN_USE,
+                LocalDateTime.now(), 4L);
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.IN_USE);
+
+        when(deviceService.updateDevice(1L, updateDto, 3L)).thenReturn(responseDto);
+
+        mockMvc.perform(put("/api/v1/devices/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(BinaryFormatConfig.APPLICATION_SMILE_VALUE)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4-smile\""));
+    }
+
+    @Test
+    void updateDevice_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.IN_USE);
+
+        doThrow(new DevicePreconditionFailedException(1L, 3L))
+                .when(deviceService).updateDevice(1L, updateDto, 3L);
+
+        mockMvc.perform(put("/api/v1/devices/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateDevice_WeakIfMatch_NeverMatches() throws Exception {
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.IN_USE);
+
+        doThrow(new DevicePreconditionFailedException(1L, -1L))
+                .when(deviceService).updateDevice(1L, updateDto, -1L);
+
+        mockMvc.perform(put("/api/v1/devices/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateDevice_ConcurrentChange_ReturnsConflict() throws Exception {
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.IN_USE);
+
+        doThrow(new OptimisticLockingFailureException("Row was updated"))
+                .when(deviceService).updateDevice(1L, updateDto, null);
+
+        mockMvc.perform(put("/api/v1/devices/1")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void getDevices_WithPagination_ReturnsPagedResponse() throws Exception {
         List<DeviceResponseDto> devices = List.of(
@@ -149,7 +475,7 @@ class DeviceControllerTest {
 
         Page<DeviceResponseDto> pagedDevices = new PageImpl<>(devices, PageRequest.of(0, 20), 2);
 
-        when(deviceService.getDevices(eq(null), eq(null), any(Pageable.class))).thenReturn(pagedDevices);
+        when(deviceService.getDevices(eq(null), eq(null), any(Pageable.class), eq(false))).thenReturn(pagedDevices);
 
         mockMvc.perform(get("/api/v1/devices")
                         .param("page", "0")
@@ -159,7 +485,59 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(2))
                 .andExpect(jsonPath("$.totalPages").value(1))
                 .andExpect(jsonPath("$.size").value(20))
-                .andExpect(jsonPath("$.number").value(0));
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.sort").doesNotExist());
+    }
+
+    @Test
+    void getDevices_MatchingIfNoneMatch_ReturnsNotModifiedWithoutReadingPage() throws Exception {
+        when(deviceService.getDevicesTag()).thenReturn(Optional.of("5eed-4"));
+
+        mockMvc.perform(get("/api/v1/devices")
+                        .param("brand", "Apple")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5eed-4-json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5eed-4-json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        verify(deviceService, never()).getDevices(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void getDevices_ChangedTag_ReturnsPageWithETag() throws Exception {
+        Page<DeviceResponseDto> pagedDevices = new PageImpl<>(List.of(
+                new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, LocalDateTime.now(), 1L)),
+                PageRequest.of(0, 20), 1);
+
+        when(deviceService.getDevicesTag()).thenReturn(Optional.of("5eed-5"));
+        when(deviceService.getDevices(eq("Apple"), eq(null), any(Pageable.class), eq(false))).thenReturn(pagedDevices);
+
+        mockMvc.perform(get("/api/v1/devices")
+                        .param("brand", "Apple")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5eed-4-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5eed-5-json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void getDevices_NoTag_ReturnsPageWithoutETag() throws Exception {
+        Page<DeviceResponseDto> pagedDevices = new PageImpl<>(List.of(
+                new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, LocalDateTime.now(), 1L)),
+                PageRequest.of(0, 20), 1);
+
+        when(deviceService.getDevicesTag()).thenReturn(Optional.empty());
+        when(deviceService.getDevices(eq("Apple"), eq(null), any(Pageable.class), eq(false))).thenReturn(pagedDevices);
+
+        mockMvc.perform(get("/api/v1/devices")
+                        .param("brand", "Apple")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5eed-4-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.content.length()").value(1));
     }
 
     @Test
@@ -171,7 +549,7 @@ class DeviceControllerTest {
 
         Page<DeviceResponseDto> pagedDevices = new PageImpl<>(appleDevices, PageRequest.of(0, 20), 2);
 
-        when(deviceService.getDevices(eq("Apple"), eq(null), any(Pageable.class))).thenReturn(pagedDevices);
+        when(deviceService.getDevices(eq("Apple"), eq(null), any(Pageable.class), eq(false))).thenReturn(pagedDevices);
 
         mockMvc.perform(get("/api/v1/devices")
                         .param("brand", "Apple")
@@ -191,7 +569,7 @@ class DeviceControllerTest {
 
         Page<DeviceResponseDto> pagedDevices = new PageImpl<>(availableDevices, PageRequest.of(0, 20), 1);
 
-        when(deviceService.getDevices(eq(null), eq(DeviceState.AVAILABLE), any(Pageable.class))).thenReturn(pagedDevices);
+        when(deviceService.getDevices(eq(null), eq(DeviceState.AVAILABLE), any(Pageable.class), eq(false))).thenReturn(pagedDevices);
 
         mockMvc.perform(get("/api/v1/devices")
                         .param("state", "AVAILABLE")
@@ -210,7 +588,7 @@ class DeviceControllerTest {
 
         Page<DeviceResponseDto> pagedDevices = new PageImpl<>(devices, PageRequest.of(0, 20), 1);
 
-        when(deviceService.getDevices(eq(null), eq(null), any(Pageable.class))).thenReturn(pagedDevices);
+        when(deviceService.getDevices(eq(null), eq(null), any(Pageable.class), eq(false))).thenReturn(pagedDevices);
 
         mockMvc.perform(get("/api/v1/devices")
                         .param("page", "0")
@@ -229,11 +607,154 @@ class DeviceControllerTest {
 
         Page<DeviceResponseDto> pagedDevices = new PageImpl<>(devices, PageRequest.of(0, 20), 1);
 
-        when(deviceService.getDevices(eq(null), eq(null), any(Pageable.class))).thenReturn(pagedDevices);
+        when(deviceService.getDevices(eq(null), eq(null), any(Pageable.class), eq(false))).thenReturn(pagedDevices);
 
         mockMvc.perform(get("/api/v1/devices")
                         .param("sortDirection", "INVALID"))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void scrollDevices_WithCursor_ReturnsSlice() throws Exception {
+        List<DeviceResponseDto> devices = List.of(
+                new DeviceResponseDto(3L, "Pixel 9", "Google", DeviceState.AVAILABLE, LocalDateTime.now())
+        );
+        DeviceSliceResponseDto slice = new DeviceSliceResponseDto(devices, 1, true, "next");
+
+        when(deviceService.scrollDevices(eq(null), eq(DeviceState.AVAILABLE), eq("current"), eq(1),
+                eq(Sort.by(Sort.Direction.DESC, "name")))).thenReturn(slice);
+
+        mockMvc.perform(get("/api/v1/devices/scroll")
+                        .param("state", "AVAILABLE")
+                        .param("cursor", "current")
+                        .param("size", "1")
+                        .param("sort", "name,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getDevices_InvalidState_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/devices")
+                        .param("state", "BROKEN"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value for state: BROKEN"));
+    }
+
+    @Test
+    void createDevice_MalformedJson_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/devices")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createDevice_UnsupportedContentType_ReturnsUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/v1/devices")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("iPhone 15"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void getDevice_DatabaseUnavailable_ReturnsServiceUnavailable() throws Exception {
+        when(deviceService.getDeviceById(1L))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available"));
+
+        mockMvc.perform(get("/api/v1/devices/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(request().attribute(AdmissionControlInterceptor.DROPPED_ATTRIBUTE, true));
+    }
+
+    @Test
+    void scrollDevices_InvalidCursor_ReturnsBadRequest() throws Exception {
+        when(deviceService.scrollDevices(eq(null), eq(null), eq("broken"), eq(20), any(Sort.class)))
+                .thenThrow(new DeviceValidationException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/v1/devices/scroll")
+                        .param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createDevices_Batch_ReturnsItemResults() throws Exception {
+        DeviceBatchResponseDto response = new DeviceBatchResponseDto(1, 1, List.of(
+                new DeviceBatchItemResultDto(0, DeviceBatchItemStatus.CREATED, 1L, null),
+                new DeviceBatchItemResultDto(1, DeviceBatchItemStatus.INVALID, null, List.of("name: Device name is required"))
+        ));
+
+        when(deviceBatchImporter.importDevices(any(InputStream.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/v1/devices/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"iPhone 15\", \"brand\": \"Apple\"}, {\"brand\": \"Apple\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].id").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[1].id").doesNotExist());
+    }
+
+    @Test
+    void updateDeviceStates_Batch_ReturnsResult() throws Exception {
+        when(deviceBulkStateUpdater.updateStates(any(DeviceBulkStateRequestDto.class)))
+                .thenReturn(new DeviceBulkStateResponseDto(List.of(1L, 2L), List.of(), List.of(9L)));
+
+        mockMvc.perform(post("/api/v1/devices/batch/state")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 2, 9], \"targetState\": \"INACTIVE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated.length()").value(2))
+                .andExpect(jsonPath("$.notFound[0]").value(9));
+    }
+
+    @Test
+    void updateDeviceStates_MissingTargetState_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/devices/batch/state")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void subscribeToChanges_WithLastEventId_PassesFiltersAndId() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(deviceChangeFeed.subscribe("Apple", DeviceState.AVAILABLE, "42")).thenReturn(emitter);
+
+        mockMvc.perform(get("/api/v1/devices/changes")
+                        .param("brand", "Apple")
+                        .param("state", "AVAILABLE")
+                        .header("Last-Event-ID", "42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(deviceChangeFeed).subscribe("Apple", DeviceState.AVAILABLE, "42");
+    }
+
+    @Test
+    void exportDevices_WithBrandFilter_StreamsNdjson() throws Exception {
+        String line = "{\"id\":1,\"name\":\"iPhone 15\",\"brand\":\"Apple\",\"state\":\"AVAILABLE\"}\n";
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(deviceExporter).exportDevices(eq("Apple"), eq(null), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/devices/export")
+                        .param("brand", "Apple"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(DeviceExporter.NDJSON_VALUE))
+                .andExpect(content().string(line));
+    }
+
 }
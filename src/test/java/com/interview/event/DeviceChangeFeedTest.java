@@ -0,0 +1,199 @@
+package com.interview.event;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.interview.dto.DeviceChangeDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceChangeType;
+import com.interview.enums.DeviceState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeviceChangeFeedTest {
+
+    private DeviceChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new DeviceChangeFeed(3, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void subscribe_WithFilters_SendsMatchingChanges() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, "apple", DeviceState.AVAILABLE, null);
+
+        feed.onDeviceChanged(DeviceChangedEvent.created(device(1L, "Samsung", DeviceState.AVAILABLE)));
+        feed.onDeviceChanged(DeviceChangedEvent.updated(device(2L, "Apple", DeviceState.AVAILABLE),
+                device(2L, "Apple", DeviceState.IN_USE)));
+
+        SentEvent event = emitter.next();
+        assertEquals(feed.eventId(2), event.id());
+        assertEquals(DeviceChangeFeed.CHANGE_EVENT, event.name());
+        assertEquals(DeviceChangeType.UPDATED, event.change().getType());
+        assertEquals(DeviceState.IN_USE, event.change().getDevice().getState());
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ResumesAfterIt() throws InterruptedException {
+        feed.onDeviceChanged(DeviceChangedEvent.created(device(1L, "Apple", DeviceState.AVAILABLE)));
+        feed.onDeviceChanged(DeviceChangedEvent.created(device(2L, "Apple", DeviceState.AVAILABLE)));
+        feed.onDeviceChanged(DeviceChangedEvent.deleted(device(1L, "Apple", DeviceState.AVAILABLE)));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, null, null, feed.eventId(1));
+
+        assertEquals(feed.eventId(2), emitter.next().id());
+        SentEvent deleted = emitter.next();
+        assertEquals(feed.eventId(3), deleted.id());
+        assertEquals(DeviceChangeType.DELETED, deleted.change().getType());
+        assertEquals(1L, deleted.change().getDevice().getId());
+    }
+
+    @Test
+    void subscribe_LastEventIdNoLongerBuffered_SendsReset() throws InterruptedException {
+        for (long id = 1; id <= 5; id++) {
+            feed.onDeviceChanged(DeviceChangedEvent.created(device(id, "Apple", DeviceState.AVAILABLE)));
+        }
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, null, null, feed.eventId(1));
+
+        SentEvent reset = emitter.next();
+        assertEquals(DeviceChangeFeed.RESET_EVENT, reset.name());
+        assertEquals(feed.eventId(5), reset.id());
+
+        feed.onDeviceChanged(DeviceChangedEvent.created(device(6L, "Apple", DeviceState.AVAILABLE)));
+        assertEquals(feed.eventId(6), emitter.next().id());
+    }
+
+    @Test
+    void subscribe_LastEventIdOfOtherRun_SendsReset() throws InterruptedException {
+        DeviceChangeFeed previousRun = new DeviceChangeFeed(3, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        feed.onDeviceChanged(DeviceChangedEvent.created(device(1L, "Apple", DeviceState.AVAILABLE)));
+        feed.onDeviceChanged(DeviceChangedEvent.created(device(2L, "Apple", DeviceState.AVAILABLE)));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, null, null, previousRun.eventId(1));
+
+        SentEvent reset = emitter.next();
+        assertEquals(DeviceChangeFeed.RESET_EVENT, reset.name());
+        assertEquals(feed.eventId(2), reset.id());
+    }
+
+    @Test
+    void invalidate_ChangeOnOtherInstance_SentToFilteredSubscribers() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, "apple", DeviceState.AVAILABLE, null);
+
+        feed.invalidate(7L, DeviceChangeType.DELETED);
+
+        SentEvent event = emitter.next();
+        assertEquals(feed.eventId(1), event.id());
+        assertEquals(DeviceChangeFeed.CHANGE_EVENT, event.name());
+        assertEquals(DeviceChangeType.DELETED, event.change().getType());
+        assertEquals(7L, event.change().getDeviceId());
+        assertNull(event.change().getDevice());
+    }
+
+    @Test
+    void invalidateAll_ChangesOfOtherInstancesMissed_SendsReset() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe(emitter, null, null, null);
+
+        feed.invalidateAll();
+        feed.onDeviceChanged(DeviceChangedEvent.created(device(1L, "Apple", DeviceState.AVAILABLE)));
+
+        SentEvent reset = emitter.next();
+        assertEquals(DeviceChangeFeed.RESET_EVENT, reset.name());
+        assertEquals(feed.eventId(1), reset.id());
+        assertEquals(feed.eventId(2), emitter.next().id());
+    }
+
+    @Test
+    void onDeviceChanged_DisconnectedSubscriber_IsRemoved() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.disconnected = true;
+        feed.subscribe(emitter, null, null, null);
+        assertEquals(1, feed.getSubscriberCount());
+
+        feed.onDeviceChanged(DeviceChangedEvent.created(device(1L, "Apple", DeviceState.AVAILABLE)));
+
+        for (int i = 0; i < 100 && feed.getSubscriberCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, feed.getSubscriberCount());
+    }
+
+    private static DeviceResponseDto device(Long id, String brand, DeviceState state) {
+        return new DeviceResponseDto(id, "Device " + id, brand, state, LocalDateTime.now(), 0L);
+    }
+
+    private record SentEvent(String id, String name, DeviceChangeDto change) {
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<SentEvent> events = new LinkedBlockingQueue<>();
+        private volatile boolean disconnected;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            StringBuilder text = new StringBuilder();
+            DeviceChangeDto change = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : parts) {
+                if (part.getData() instanceof DeviceChangeDto dto) {
+                    change = dto;
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            if (text.toString().startsWith(":")) {
+                return;
+            }
+            events.add(new SentEvent(field(text, "id:"), field(text, "event:"), change));
+        }
+
+        private SentEvent next() throws InterruptedException {
+            SentEvent event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No event was sent");
+            return event;
+        }
+
+        private static String field(CharSequence text, String prefix) {
+            List<String> values = text.toString().lines()
+                    .filter(line -> line.startsWith(prefix))
+                    .map(line -> line.substring(prefix.length()))
+                    .toList();
+            assertTrue(values.size() <= 1);
+            return values.isEmpty() ? null : values.getFirst();
+        }
+
+    }
+
+}
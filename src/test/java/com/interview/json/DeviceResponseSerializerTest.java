@@ -0,0 +1,54 @@
+package com.interview.json;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeviceResponseSerializerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    // the bean serializer the custom one replaces
+    private final ObjectMapper beanMapper = Jackson2ObjectMapperBuilder.json()
+            .mixIn(DeviceResponseDto.class, BeanSerialized.class)
+            .build();
+
+    @Test
+    void serialize_Device_WritesSameJsonAsBeanSerializer() throws Exception {
+        DeviceResponseDto device = new DeviceResponseDto(1L, "iPhone \"15\"", "Apple", DeviceState.IN_USE,
+                LocalDateTime.of(2024, 1, 5, 9, 3, 7, 123_000_000), 4L);
+
+        String json = objectMapper.writeValueAsString(device);
+
+        assertEquals("{\"id\":1,\"name\":\"iPhone \\\"15\\\"\",\"brand\":\"Apple\",\"state\":\"IN_USE\","
+                + "\"creationTime\":\"2024-01-05T09:03:07\"}", json);
+        assertEquals(beanMapper.writeValueAsString(device), json);
+    }
+
+    @Test
+    void serialize_NullFields_WritesSameJsonAsBeanSerializer() throws Exception {
+        DeviceResponseDto device = new DeviceResponseDto();
+
+        assertEquals(beanMapper.writeValueAsString(device), objectMapper.writeValueAsString(device));
+    }
+
+    @Test
+    void serialize_YearOutsideFourDigits_WritesSameJsonAsBeanSerializer() throws Exception {
+        DeviceResponseDto device = new DeviceResponseDto(1L, "Device", "Brand", DeviceState.AVAILABLE,
+                LocalDateTime.of(12024, 12, 31, 23, 59, 59));
+
+        assertEquals(beanMapper.writeValueAsString(device), objectMapper.writeValueAsString(device));
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+}
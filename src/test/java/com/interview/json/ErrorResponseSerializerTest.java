@@ -0,0 +1,48 @@
+package com.interview.json;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.interview.dto.ErrorResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ErrorResponseSerializerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    // the bean serializer the custom one replaces
+    private final ObjectMapper beanMapper = Jackson2ObjectMapperBuilder.json()
+            .mixIn(ErrorResponseDto.class, BeanSerialized.class)
+            .build();
+
+    @Test
+    void serialize_ErrorWithDetails_WritesSameJsonAsBeanSerializer() throws Exception {
+        ErrorResponseDto error = new ErrorResponseDto(400, "Validation Failed", "Invalid input data",
+                List.of("name: Device name is required", "brand: Device brand is required"));
+        error.setTimestamp(LocalDateTime.of(2024, 1, 15, 10, 30));
+
+        String json = objectMapper.writeValueAsString(error);
+
+        assertEquals("{\"status\":400,\"error\":\"Validation Failed\",\"message\":\"Invalid input data\","
+                + "\"details\":[\"name: Device name is required\",\"brand: Device brand is required\"],"
+                + "\"timestamp\":\"2024-01-15T10:30:00\"}", json);
+        assertEquals(beanMapper.writeValueAsString(error), json);
+    }
+
+    @Test
+    void serialize_ErrorWithoutDetails_WritesSameJsonAsBeanSerializer() throws Exception {
+        ErrorResponseDto error = new ErrorResponseDto(404, "Not Found", "Device not found with id: 1");
+
+        assertEquals(beanMapper.writeValueAsString(error), objectMapper.writeValueAsString(error));
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.interview.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceChangeType;
+import com.interview.enums.DeviceState;
+import com.interview.event.DeviceChangedEvent;
+import com.interview.repository.PostgresContainerInitializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// the outbox manages its own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeviceOutboxTest extends PostgresContainerInitializer {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RecordingListener listenerA = new RecordingListener();
+    private final RecordingListener listenerB = new RecordingListener();
+    private DeviceOutbox nodeA;
+    private DeviceOutbox nodeB;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new DeviceOutbox(jdbcTemplate, transactionManager, List.of(listenerA), "node-a", 2,
+                Duration.ofMinutes(1), Duration.ofHours(1));
+        nodeB = new DeviceOutbox(jdbcTemplate, transactionManager, List.of(listenerB), "node-b", 2,
+                Duration.ofMinutes(1), Duration.ofHours(1));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        nodeA.heartbeat();
+        nodeB.heartbeat();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM device_outbox");
+        jdbcTemplate.update("DELETE FROM device_outbox_node");
+    }
+
+    @Test
+    void relay_CommittedChanges_DeliversToOtherNodesOnly() {
+        transactionTemplate.executeWithoutResult(status -> {
+            nodeA.onDeviceChanged(DeviceChangedEvent.created(device(1L)));
+            nodeA.onDeviceChanged(DeviceChangedEvent.updated(device(2L), device(2L)));
+            nodeA.onDeviceChanged(DeviceChangedEvent.deleted(device(3L)));
+        });
+
+        assertEquals(0, nodeA.relay());
+        assertEquals(3, nodeB.relay());
+        assertEquals(List.of(1L, 2L, 3L), listenerB.deviceIds);
+        assertEquals(List.of(DeviceChangeType.CREATED, DeviceChangeType.UPDATED, DeviceChangeType.DELETED), listenerB.types);
+        assertEquals(0, nodeB.relay());
+        assertEquals(0, count("SELECT COUNT(*) FROM device_outbox"));
+    }
+
+    @Test
+    void onDeviceChanged_RolledBackTransaction_WritesNothing() {
+        transactionTemplate.executeWithoutResult(status -> {
+            nodeA.onDeviceChanged(DeviceChangedEvent.created(device(1L)));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, count("SELECT COUNT(*) FROM device_outbox"));
+    }
+
+    @Test
+    void prune_UnregisteredNode_DeletesItsChanges() {
+        jdbcTemplate.update("INSERT INTO device_outbox (node_id, device_id, change_type) VALUES ('node-gone', 1, 'CREATED')");
+        jdbcTemplate.update("INSERT INTO device_outbox (node_id, device_id, change_type) VALUES ('node-b', 1, 'CREATED')");
+
+        assertEquals(1, nodeA.prune());
+        assertEquals(1, count("SELECT COUNT(*) FROM device_outbox WHERE node_id = 'node-b'"));
+    }
+
+    @Test
+    void heartbeat_ExpiredRegistration_InvalidatesAll() {
+        assertEquals(1, listenerB.invalidatedAll);
+
+        nodeB.heartbeat();
+        assertEquals(1, listenerB.invalidatedAll);
+
+        jdbcTemplate.update("DELETE FROM device_outbox_node WHERE node_id = 'node-b'");
+        nodeB.heartbeat();
+        assertEquals(2, listenerB.invalidatedAll);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static DeviceResponseDto device(Long id) {
+        return new DeviceResponseDto(id, "Pixel 9", "Google", DeviceState.AVAILABLE, LocalDateTime.now(), 0L);
+    }
+
+    private static final class RecordingListener implements DeviceInvalidationListener {
+
+        private final List<Long> deviceIds = new ArrayList<>();
+        private final List<DeviceChangeType> types = new ArrayList<>();
+        private int invalidatedAll;
+
+        @Override
+        public void invalidate(Long deviceId, DeviceChangeType type) {
+            deviceIds.add(deviceId);
+            types.add(type);
+        }
+
+        @Override
+        public void invalidateAll() {
+            invalidatedAll++;
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.interview.pagination;
+
+import java.time.LocalDateTime;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.exception.DeviceValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeviceCursorTest {
+
+    @Test
+    void first_Unsorted_UsesIdAscending() {
+        DeviceCursor cursor = DeviceCursor.first(Sort.unsorted());
+
+        assertTrue(cursor.isFirst());
+        assertEquals("id", cursor.getProperty());
+        assertEquals(Sort.Direction.ASC, cursor.getDirection());
+    }
+
+    @Test
+    void first_UnsupportedProperty_ThrowsException() {
+        assertThrows(DeviceValidationException.class, () -> DeviceCursor.first(Sort.by("state")));
+    }
+
+    @Test
+    void first_MultipleProperties_ThrowsException() {
+        assertThrows(DeviceValidationException.class, () -> DeviceCursor.first(Sort.by("name", "brand")));
+    }
+
+    @Test
+    void encodeDecode_CreationTimeSort_RestoresPosition() {
+        LocalDateTime creationTime = LocalDateTime.of(2024, 1, 15, 10, 30, 15, 123456000);
+        DeviceResponseDto device = new DeviceResponseDto(42L, "iPhone 15", "Apple", DeviceState.AVAILABLE, creationTime);
+
+        DeviceCursor cursor = DeviceCursor.first(Sort.by(Sort.Direction.DESC, "creationTime")).after(device);
+        DeviceCursor decoded = DeviceCursor.decode(cursor.encode());
+
+        assertFalse(decoded.isFirst());
+        assertEquals("creationTime", decoded.getProperty());
+        assertEquals(Sort.Direction.DESC, decoded.getDirection());
+        assertEquals(42L, decoded.getLastId());
+        assertEquals(creationTime, decoded.getLastValue());
+    }
+
+    @Test
+    void encodeDecode_NameWithSeparator_RestoresPosition() {
+        DeviceResponseDto device = new DeviceResponseDto(7L, "Pixel: 9", "Google", DeviceState.AVAILABLE, LocalDateTime.now());
+
+        DeviceCursor decoded = DeviceCursor.decode(DeviceCursor.first(Sort.by("name")).after(device).encode());
+
+        assertEquals("Pixel: 9", decoded.getLastValue());
+        assertEquals(7L, decoded.getLastId());
+    }
+
+    @Test
+    void decode_Garbage_ThrowsException() {
+        assertThrows(DeviceValidationException.class, () -> DeviceCursor.decode("not a cursor"));
+        assertThrows(DeviceValidationException.class, () -> DeviceCursor.decode("c3RhdGU6QVNDOjE6eA"));
+    }
+
+    @Test
+    void matches_DifferentSort_ReturnsFalse() {
+        DeviceCursor cursor = DeviceCursor.first(Sort.by(Sort.Direction.DESC, "name"));
+
+        assertTrue(cursor.matches(Sort.unsorted()));
+        assertTrue(cursor.matches(Sort.by(Sort.Direction.DESC, "name")));
+        assertFalse(cursor.matches(Sort.by("name")));
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.interview.replica;
+
+import java.time.Duration;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofSeconds(5),
+            "/api/v1/devices", "secret");
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    void preHandle_Write_SetsCookieForWindow() {
+        long before = System.currentTimeMillis();
+
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/devices"), response, null);
+
+        Cookie cookie = response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals(5, cookie.getMaxAge());
+        assertEquals("/api/v1/devices", cookie.getPath());
+        assertTrue(Long.parseLong(cookie.getValue().substring(0, cookie.getValue().indexOf('.'))) >= before + 5000);
+        assertFalse(ReplicaRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void preHandle_ReadWithinWindow_RequiresPrimaryUntilCompletion() {
+        MockHttpServletRequest request = read(System.currentTimeMillis() + 5000);
+
+        interceptor.preHandle(request, response, null);
+
+        assertTrue(ReplicaRoutingContext.isPrimaryRequired());
+        assertNull(response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME));
+        interceptor.afterCompletion(request, response, null, null);
+        assertFalse(ReplicaRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void preHandle_ReadAfterWindow_UsesReplicas() {
+        interceptor.preHandle(read(System.currentTimeMillis() - 1), response, null);
+
+        assertFalse(ReplicaRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void preHandle_ReadWithCookieOfInstanceSharingSecret_RequiresPrimary() {
+        ReadYourWritesInterceptor other = new ReadYourWritesInterceptor(Duration.ofSeconds(5), "/api/v1/devices",
+                "secret");
+
+        interceptor.preHandle(read(other.sign(System.currentTimeMillis() + 5000)), response, null);
+
+        assertTrue(ReplicaRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void preHandle_ReadWithForgedCookie_UsesReplicas() {
+        ReadYourWritesInterceptor other = new ReadYourWritesInterceptor(Duration.ofSeconds(5), "/api/v1/devices",
+                "other");
+        long farFuture = System.currentTimeMillis() + Duration.ofDays(365).toMillis();
+        String signed = interceptor.sign(System.currentTimeMillis() + 5000);
+
+        for (String value : new String[]{Long.toString(farFuture), other.sign(farFuture),
+                farFuture + signed.substring(signed.indexOf('.')), "broken.!"}) {
+            interceptor.preHandle(read(value), response, null);
+
+            assertFalse(ReplicaRoutingContext.isPrimaryRequired(), value);
+        }
+    }
+
+    private MockHttpServletRequest read(long primaryUntil) {
+        return read(interceptor.sign(primaryUntil));
+    }
+
+    private static MockHttpServletRequest read(String cookieValue) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/devices/1");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, cookieValue));
+        return request;
+    }
+
+}
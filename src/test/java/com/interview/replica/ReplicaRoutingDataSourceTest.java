@@ -0,0 +1,271 @@
+package com.interview.replica;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replicaA;
+
+    @Mock
+    private DataSource replicaB;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnectionA = mock(Connection.class);
+    private final Connection replicaConnectionB = mock(Connection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(replicaA, replicaB), Duration.ofSeconds(10),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void getConnection_ReadWriteTransaction_UsesPrimary() throws SQLException {
+        // given
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // when
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertSame(primaryConnection, connection);
+        verify(replicaA, never()).getConnection();
+        verify(replicaB, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ReadOnlyTransaction_AlternatesReplicas() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenReturn(replicaConnectionA);
+        when(replicaB.getConnection()).thenReturn(replicaConnectionB);
+
+        // when
+        List<Connection> connections = List.of(dataSource.getConnection(), dataSource.getConnection(),
+                dataSource.getConnection());
+
+        // then
+        assertEquals(List.of(replicaConnectionA, replicaConnectionB, replicaConnectionA), connections);
+        verify(primary, never()).getConnection();
+        assertEquals(3.0, reads("replica"));
+    }
+
+    @Test
+    void getConnection_ReplicaFails_SkipsReplica() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenThrow(unreachable());
+        when(replicaB.getConnection()).thenReturn(replicaConnectionB);
+
+        // when
+        List<Connection> connections = List.of(dataSource.getConnection(), dataSource.getConnection(),
+                dataSource.getConnection());
+
+        // then
+        assertEquals(List.of(replicaConnectionB, replicaConnectionB, replicaConnectionB), connections);
+        verify(replicaA, times(1)).getConnection();
+        assertEquals(1.0, meterRegistry.get("device.datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    void getConnection_NoHealthyReplica_FallsBackToPrimary() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection()).thenThrow(unreachable());
+        when(replicaB.getConnection()).thenThrow(unreachable());
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // when
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertSame(primaryConnection, connection);
+        assertEquals(1.0, reads("primary"));
+        assertEquals(0.0, meterRegistry.get("device.datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    void getConnection_ReplicaPoolsExhausted_FallsBackWithoutSkippingReplicas() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaA.getConnection())
+                .thenThrow(new SQLTransientConnectionException("Connection is not available, request timed out"))
+                .thenReturn(replicaConnectionA);
+        when(replicaB.getConnection())
+                .thenThrow(new SQLTransientConnectionException("Connection is not available, request timed out"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // when
+        Connection fallback = dataSource.getConnection();
+        Connection next = dataSource.getConnection();
+
+        // then
+        assertSame(primaryConnection, fallback);
+        assertSame(replicaConnectionA, next);
+        assertEquals(2.0, meterRegistry.get("device.datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    void getConnection_PrimaryRequired_UsesPrimary() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // when
+        Connection connection = ReplicaRoutingContext.onPrimary(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // then
+        assertSame(primaryConnection, connection);
+        verify(replicaA, never()).getConnection();
+        assertFalse(ReplicaRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void checkReplicas_ReplicaLagging_SkipsReplicaUntilCaughtUp() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        primaryPosition("0/3000060");
+        lag(replicaA, replicaConnectionA, 30.0, 0.0);
+        lag(replicaB, replicaConnectionB, 0.0, 0.0);
+
+        // when
+        dataSource.checkReplicas();
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        dataSource.checkReplicas();
+
+        // then
+        assertSame(replicaConnectionB, first);
+        assertSame(replicaConnectionB, second);
+        // only the two checks asked the lagging replica for a connection
+        verify(replicaA, times(2)).getConnection();
+        assertEquals(2.0, meterRegistry.get("device.datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    void checkReplicas_ReplicaDisconnectedFromPrimary_SkipsReplica() throws SQLException {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        primaryPosition("0/3000060");
+        // replayed all it received before losing the primary, which kept writing
+        PreparedStatement statement = lag(replicaA, replicaConnectionA, 120.0);
+        lag(replicaB, replicaConnectionB, 0.0);
+
+        // when
+        dataSource.checkReplicas();
+        Connection connection = dataSource.getConnection();
+
+        // then
+        assertSame(replicaConnectionB, connection);
+        verify(statement).setString(1, "0/3000060");
+        assertEquals(1.0, meterRegistry.get("device.datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    void checkReplicas_BehindWithoutReplayedTransaction_SkipsReplica() throws SQLException {
+        // given
+        primaryPosition("0/3000060");
+        PreparedStatement statement = lag(replicaA, replicaConnectionA, 0.0);
+        when(statement.executeQuery().wasNull()).thenReturn(true);
+        lag(replicaB, replicaConnectionB, 0.0);
+
+        // when
+        dataSource.checkReplicas();
+
+        // then
+        assertEquals(1.0, meterRegistry.get("device.datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    void checkReplicas_PrimaryUnavailable_KeepsReplicas() throws SQLException {
+        // given
+        when(primary.getConnection()).thenThrow(new SQLException("Connection refused", "08001"));
+
+        // when
+        dataSource.checkReplicas();
+
+        // then
+        verify(replicaA, never()).getConnection();
+        assertEquals(2.0, meterRegistry.get("device.datasource.replicas.healthy").gauge().value());
+    }
+
+    // pools report an unreachable database as a timeout caused by the failed connection attempt
+    private static SQLTransientConnectionException unreachable() {
+        return new SQLTransientConnectionException("Connection is not available", "08001",
+                new SQLException("Connection refused", "08001"));
+    }
+
+    private void primaryPosition(String position) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(primaryConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getString(1)).thenReturn(position);
+    }
+
+    private PreparedStatement lag(DataSource replica, Connection connection, double lagSeconds,
+                                 double... laterLagSeconds) throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds, Arrays.stream(laterLagSeconds).boxed()
+                .toArray(Double[]::new));
+        return statement;
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("device.datasource.reads").tag("target", target).counter().count();
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.interview.replica;
+
+import java.util.List;
+
+import com.interview.config.ReplicaRoutingConfig;
+import com.interview.entity.DeviceEntity;
+import com.interview.enums.DeviceState;
+import com.interview.repository.DeviceRepository;
+import com.interview.repository.PostgresContainerInitializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// a second database stands in for a replica, it only differs from the primary in its rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReplicaRoutingConfig.class, SimpleMeterRegistry.class})
+class ReplicaRoutingIntegrationTest extends PostgresContainerInitializer {
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("devices_replica_db")
+            .withUsername("devices_test_user")
+            .withPassword("devices_test_pass");
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("device.replicas.urls", replica::getJdbcUrl);
+        registry.add("device.replicas.username", replica::getUsername);
+        registry.add("device.replicas.password", replica::getPassword);
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.save(new DeviceEntity("On primary", "Apple", DeviceState.AVAILABLE));
+        replicaJdbcTemplate.update("INSERT INTO device (name, brand, state) VALUES (?, ?, ?)", "On replica", "Apple",
+                "AVAILABLE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        deviceRepository.deleteAllInBatch();
+        replicaJdbcTemplate.update("DELETE FROM device");
+    }
+
+    @Test
+    void readOnlyTransaction_ReadsFromReplica() {
+        assertEquals(List.of("On replica"), names(true));
+    }
+
+    @Test
+    void readWriteTransaction_ReadsFromPrimary() {
+        assertEquals(List.of("On primary"), names(false));
+    }
+
+    @Test
+    void readOnlyTransaction_PrimaryRequired_ReadsFromPrimary() {
+        assertEquals(List.of("On primary"), ReplicaRoutingContext.onPrimary(() -> names(true)));
+    }
+
+    private List<String> names(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> deviceRepository.findAll().stream()
+                .map(DeviceEntity::getName)
+                .toList());
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.interview.repository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.interview.entity.DeviceEntity;
+import com.interview.enums.DeviceState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// devices are committed, so concurrent transactions see them
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DevicePartitionTest extends PostgresContainerInitializer {
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private DeviceEntity device;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        device = deviceRepository.save(new DeviceEntity("Galaxy S25", "Samsung", DeviceState.AVAILABLE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        deviceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void save_StateChanges_MovesDeviceBetweenPartitions() {
+        assertEquals("device_hot", partitionOf(device.getId()));
+
+        device.setState(DeviceState.IN_USE);
+        device = deviceRepository.save(device);
+        assertEquals("device_hot", partitionOf(device.getId()));
+
+        device.setState(DeviceState.INACTIVE);
+        device = deviceRepository.save(device);
+        assertEquals("device_cold", partitionOf(device.getId()));
+        assertEquals(2L, device.getVersion());
+        assertEquals(DeviceState.INACTIVE, deviceRepository.findById(device.getId()).orElseThrow().getState());
+    }
+
+    @Test
+    void updateStateByIds_MovesDevicesBetweenPartitions() {
+        transactionTemplate.executeWithoutResult(status ->
+                deviceRepository.updateStateByIds(List.of(device.getId()), DeviceState.INACTIVE));
+
+        assertEquals("device_cold", partitionOf(device.getId()));
+    }
+
+    @Test
+    void findByState_ScansPartitionOfStateOnly() {
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM device WHERE state = 'AVAILABLE' ORDER BY creation_time LIMIT 20", String.class));
+
+        assertTrue(plan.contains("device_hot"), plan);
+        assertFalse(plan.contains("device_cold"), plan);
+    }
+
+    @Test
+    void estimateCount_SumsPartitions() {
+        deviceRepository.save(new DeviceEntity("Pixel 9 Pro", "Google", DeviceState.INACTIVE));
+        jdbcTemplate.execute("ANALYZE device");
+
+        assertEquals(2, deviceRepository.estimateCount());
+    }
+
+    @Test
+    void flush_DeviceConcurrentlyMovedToOtherPartition_ThrowsConcurrencyFailure() throws Exception {
+        CountDownLatch moved = new CountDownLatch(1);
+        // another transaction retires the device and commits once this one waits for the row
+        CompletableFuture<Void> retire = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE device SET state = 'INACTIVE', version = version + 1 WHERE id = ?",
+                    device.getId());
+            moved.countDown();
+            awaitBlockedTransaction();
+        }));
+        assertTrue(moved.await(5, TimeUnit.SECONDS));
+
+        Exception exception = assertThrows(Exception.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            DeviceEntity stale = deviceRepository.findById(device.getId()).orElseThrow();
+            stale.setName("Galaxy S25 Ultra");
+            deviceRepository.flush();
+        }));
+
+        retire.get(5, TimeUnit.SECONDS);
+        assertInstanceOf(ConcurrencyFailureException.class, exception);
+        assertEquals("device_cold", partitionOf(device.getId()));
+    }
+
+    private String partitionOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM device WHERE id = ?", String.class, id);
+    }
+
+    private void awaitBlockedTransaction() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline && jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_locks WHERE NOT granted", Integer.class) == 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.interview.repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.pagination.DeviceCursor;
+import com.interview.repository.QueryPlanRecorder.QueryPlan;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the execution plans of the repository queries on a million devices with skewed brands and states. Every
+ * statement must stay within a budget of shared buffers and must not scan a device partition sequentially, unless
+ * it reads the whole partition anyway. Plans only change with the data, so the data set is seeded once for all tests.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Import(QueryPlanRecorder.class)
+class DeviceQueryPlanTest extends PostgresContainerInitializer {
+
+    private static final int DEVICES = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    // budgets in shared buffers hit or read by a statement, including index pages. Row budgets apply per device looked
+    // up or changed, aggregates read every device of COMMON_BRAND
+    private static final long ROW_BUDGET = 60;
+    private static final long PAGE_BUDGET = 150;
+    private static final long AGGREGATE_BUDGET = 5_000;
+
+    // brand ranks follow a Zipf distribution over 500 brands, one in ten is spelled in upper case. States are 70 %
+    // inactive, 20 % available and 10 % in use
+    private static final String SEED = "INSERT INTO device (id, name, brand, state, creation_time) "
+            + "SELECT nextval('device_id_seq'), 'Model ' || floor(random() * 20000)::int, "
+            + "CASE WHEN random() < 0.1 THEN 'BRAND ' ELSE 'Brand ' END || floor(exp(random() * ln(500)))::int, "
+            + "CASE WHEN r < 0.7 THEN 'INACTIVE' WHEN r < 0.9 THEN 'AVAILABLE' ELSE 'IN_USE' END, "
+            + "now() - random() * interval '5 years' "
+            + "FROM (SELECT random() AS r FROM generate_series(1, " + DEVICES + ")) s";
+
+    // the most used brand with about 11 % of the devices, one with about 0.3 % and a rare one with about 0.03 %
+    private static final String POPULAR_BRAND = "brand 1";
+    private static final String COMMON_BRAND = "Brand 50";
+    private static final String RARE_BRAND = "BRAND 400";
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long partitionBuffers;
+    private List<Long> ids;
+
+    @BeforeAll
+    void seed() {
+        // seeded on a single connection, so every run gets the same devices
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setseed(0.25)");
+                statement.executeUpdate(SEED);
+            }
+            return null;
+        });
+        // vacuumed, so visibility maps allow index-only scans as in a long-running database
+        jdbcTemplate.execute("VACUUM ANALYZE device");
+
+        // pages of the partitions and their primary keys, plus a tenth for pages an index scan visits twice
+        long pages = jdbcTemplate.queryForObject("SELECT SUM(c.relpages) FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                + "OR c.oid IN (SELECT x.indexrelid FROM pg_index x WHERE x.indrelid = i.inhrelid AND x.indisprimary) "
+                + "WHERE i.inhparent = to_regclass('device')", Long.class);
+        partitionBuffers = pages + pages / 10;
+        ids = jdbcTemplate.queryForList("SELECT id FROM device WHERE state <> 'IN_USE' ORDER BY id DESC LIMIT 10",
+                Long.class);
+    }
+
+    @AfterAll
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE device");
+    }
+
+    @ParameterizedTest(name = "{0} sorted by {1}")
+    @MethodSource("filtersAndSorts")
+    void findList_FirstPage_UsesIndexWithinBudget(Filter filter, Sort sort) {
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, sort);
+
+        List<QueryPlan> plans = QueryPlanRecorder.record(() -> findList(filter, pageable));
+
+        assertPlans(plans, PAGE_BUDGET);
+    }
+
+    @ParameterizedTest(name = "{0} sorted by {1}")
+    @MethodSource("filtersAndSorts")
+    void seek_NextSlice_UsesIndexWithinBudget(Filter filter, Sort sort) {
+        DeviceCursor first = DeviceCursor.first(sort);
+        List<DeviceResponseDto> slice = seek(filter, first);
+        assertFalse(slice.isEmpty(), "no devices match " + filter);
+        DeviceCursor next = first.after(slice.getLast());
+
+        List<QueryPlan> plans = QueryPlanRecorder.record(() -> seek(filter, next));
+
+        assertPlans(plans, PAGE_BUDGET);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void query_UsesIndexWithinBudget(String name, long budget, Consumer<DeviceRepository> query) {
+        List<QueryPlan> plans = QueryPlanRecorder.record(() -> query.accept(deviceRepository));
+
+        assertPlans(plans, budget);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("partitionReads")
+    void partitionRead_ReadsPartitionsOnce(String name, Consumer<DeviceRepository> query) {
+        List<QueryPlan> plans = QueryPlanRecorder.record(() -> query.accept(deviceRepository));
+
+        assertFalse(plans.isEmpty(), "no statement executed");
+        // whole partitions are read, a sequential scan is as good as any index
+        plans.forEach(plan -> assertTrue(plan.buffers() <= partitionBuffers,
+                plan.buffers() + " buffers, budget " + partitionBuffers + ": " + plan));
+    }
+
+    Stream<Arguments> filtersAndSorts() {
+        List<Filter> filters = new ArrayList<>();
+        filters.add(new Filter(null, null));
+        for (DeviceState state : DeviceState.values()) {
+            filters.add(new Filter(null, state));
+        }
+        for (String brand : List.of(POPULAR_BRAND, COMMON_BRAND, RARE_BRAND)) {
+            filters.add(new Filter(brand, null));
+            for (DeviceState state : DeviceState.values()) {
+                filters.add(new Filter(brand, state));
+            }
+        }
+        // the sorts allowed by the device listing endpoints
+        return filters.stream()
+                .flatMap(filter -> DeviceCursor.SORT_PROPERTIES.stream()
+                        .flatMap(property -> Stream.of(Sort.Direction.values())
+                                .map(direction -> Arguments.of(filter, Sort.by(direction, property)))));
+    }
+
+    Stream<Arguments> queries() {
+        Pageable byId = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        long batchBudget = ROW_BUDGET * ids.size();
+        return Stream.of(
+                query("findById", ROW_BUDGET, repository -> repository.findById(ids.getFirst())),
+                query("existsById", ROW_BUDGET, repository -> repository.existsById(ids.getFirst())),
+                query("findResponseById", ROW_BUDGET, repository -> repository.findResponseById(ids.getFirst())),
+                query("deleteUnlessInUse", ROW_BUDGET, repository -> repository.deleteUnlessInUse(ids.getFirst())),
+                query("estimateCount", ROW_BUDGET, DeviceRepository::estimateCount),
+                query("findIdsByIdIn", batchBudget, repository -> repository.findIdsByIdIn(ids)),
+                query("updateStateByIds", batchBudget, repository -> repository.updateStateByIds(ids, DeviceState.IN_USE)),
+                query("updateStateByFilter", ROW_BUDGET * PAGE_SIZE, repository -> repository.updateStateByFilter(
+                        COMMON_BRAND, DeviceState.AVAILABLE, DeviceState.INACTIVE, PAGE_SIZE)),
+                query("findByBrandIgnoreCaseAndState", AGGREGATE_BUDGET, repository ->
+                        repository.findByBrandIgnoreCaseAndState(COMMON_BRAND, DeviceState.AVAILABLE, byId)),
+                query("findByBrandIgnoreCase", AGGREGATE_BUDGET, repository ->
+                        repository.findByBrandIgnoreCase(COMMON_BRAND, byId)),
+                query("findByState", AGGREGATE_BUDGET, repository -> repository.findByState(DeviceState.IN_USE, byId)),
+                query("countByBrandIgnoreCaseAndState", AGGREGATE_BUDGET, repository ->
+                        repository.countByBrandIgnoreCaseAndState(COMMON_BRAND, DeviceState.AVAILABLE)),
+                query("countByBrandIgnoreCase", AGGREGATE_BUDGET, repository ->
+                        repository.countByBrandIgnoreCase(COMMON_BRAND)),
+                query("countByState", AGGREGATE_BUDGET, repository -> repository.countByState(DeviceState.IN_USE)),
+                query("streamByBrandIgnoreCaseAndState", AGGREGATE_BUDGET, repository ->
+                        consume(repository.streamByBrandIgnoreCaseAndState(COMMON_BRAND, DeviceState.AVAILABLE))),
+                query("streamByBrandIgnoreCase", AGGREGATE_BUDGET, repository ->
+                        consume(repository.streamByBrandIgnoreCase(COMMON_BRAND))));
+    }
+
+    Stream<Arguments> partitionReads() {
+        return Stream.of(
+                query("count", DeviceRepository::count),
+                query("countByState INACTIVE", repository -> repository.countByState(DeviceState.INACTIVE)),
+                query("countByBrandAndState", DeviceRepository::countByBrandAndState),
+                query("streamByState", repository -> consume(repository.streamByState(DeviceState.INACTIVE))),
+                query("streamAll", repository -> consume(repository.streamAll())));
+    }
+
+    private static Arguments query(String name, long budget, Consumer<DeviceRepository> query) {
+        return Arguments.of(name, budget, query);
+    }
+
+    private static Arguments query(String name, Consumer<DeviceRepository> query) {
+        return Arguments.of(name, query);
+    }
+
+    private static void consume(Stream<DeviceResponseDto> devices) {
+        try (devices) {
+            devices.forEach(device -> { });
+        }
+    }
+
+    private List<DeviceResponseDto> findList(Filter filter, Pageable pageable) {
+        if (filter.brand() != null && filter.state() != null) {
+            return deviceRepository.findListByBrandIgnoreCaseAndState(filter.brand(), filter.state(), pageable);
+        } else if (filter.brand() != null) {
+            return deviceRepository.findListByBrandIgnoreCase(filter.brand(), pageable);
+        } else if (filter.state() != null) {
+            return deviceRepository.findListByState(filter.state(), pageable);
+        }
+        return deviceRepository.findList(pageable);
+    }
+
+    private List<DeviceResponseDto> seek(Filter filter, DeviceCursor cursor) {
+        int limit = PAGE_SIZE + 1;
+        if (filter.brand() != null && filter.state() != null) {
+            return deviceRepository.seekByBrandIgnoreCaseAndState(filter.brand(), filter.state(), cursor, limit);
+        } else if (filter.brand() != null) {
+            return deviceRepository.seekByBrandIgnoreCase(filter.brand(), cursor, limit);
+        } else if (filter.state() != null) {
+            return deviceRepository.seekByState(filter.state(), cursor, limit);
+        }
+        return deviceRepository.seekAll(cursor, limit);
+    }
+
+    private static void assertPlans(List<QueryPlan> plans, long budget) {
+        assertFalse(plans.isEmpty(), "no statement executed");
+        for (QueryPlan plan : plans) {
+            // catalog tables are small, only device partitions must not be scanned
+            List<String> scans = plan.sequentialScans().stream()
+                    .filter(relation -> relation.startsWith("device"))
+                    .toList();
+            assertTrue(scans.isEmpty(), "sequential scan of " + scans + ": " + plan);
+            assertTrue(plan.buffers() <= budget, plan.buffers() + " buffers, budget " + budget + ": " + plan);
+        }
+    }
+
+    record Filter(String brand, DeviceState state) {
+
+        @Override
+        public String toString() {
+            return "brand=" + brand + ", state=" + state;
+        }
+
+    }
+
+}
@@ -1,15 +1,26 @@
 package com.interview.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.interview.dto.DeviceResponseDto;
 import com.interview.entity.DeviceEntity;
 import com.interview.enums.DeviceState;
+import com.interview.exception.DeviceValidationException;
+import com.interview.pagination.DeviceCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DeviceRepositoryTest extends PostgresContainerInitializer {
@@ -64,4 +75,198 @@ class DeviceRepositoryTest extends PostgresContainerInitializer {
         assertEquals(2, availableDevices.getTotalElements());
         assertTrue(availableDevices.stream().allMatch(d -> d.getState() == DeviceState.AVAILABLE));
     }
+
+    @Test
+    void seekAll_ByName_ContinuesAfterCursor() {
+        DeviceCursor cursor = DeviceCursor.first(Sort.by("name"));
+
+        List<DeviceResponseDto> firstSlice = deviceRepository.seekAll(cursor, 2);
+        DeviceCursor next = cursor.after(firstSlice.getLast());
+        List<DeviceResponseDto> secondSlice = deviceRepository.seekAll(DeviceCursor.decode(next.encode()), 2);
+
+        List<Long> expected = deviceRepository.findAll(Sort.by("name", "id")).stream().map(DeviceEntity::getId).toList();
+        assertEquals(expected.subList(0, 2), firstSlice.stream().map(DeviceResponseDto::getId).toList());
+        assertEquals(expected.subList(2, 4), secondSlice.stream().map(DeviceResponseDto::getId).toList());
+    }
+
+    @Test
+    void seekByBrand_ByCreationTimeDesc_ReturnsFilteredDevices() {
+        List<DeviceResponseDto> devices = deviceRepository.seekByBrandIgnoreCase("GOOGLE",
+                DeviceCursor.first(Sort.by(Sort.Direction.DESC, "creationTime")), 10);
+
+        assertEquals(2, devices.size());
+        assertTrue(devices.stream().allMatch(d -> d.getBrand().equalsIgnoreCase("Google")));
+    }
+
+    @Test
+    void seekByBrandAndState_ById_ReturnsDevices() {
+        List<DeviceResponseDto> devices = deviceRepository.seekByBrandIgnoreCaseAndState("google", DeviceState.IN_USE,
+                DeviceCursor.first(Sort.unsorted()), 10);
+
+        assertEquals(1, devices.size());
+        assertEquals("Pixel 9", devices.getFirst().getName());
+    }
+
+    @Test
+    void seekByState_AfterLastDevice_ReturnsEmpty() {
+        DeviceCursor cursor = DeviceCursor.first(Sort.by(Sort.Direction.DESC, "id"));
+
+        List<DeviceResponseDto> devices = deviceRepository.seekByState(DeviceState.AVAILABLE, cursor, 10);
+        List<DeviceResponseDto> rest = deviceRepository.seekByState(DeviceState.AVAILABLE,
+                cursor.after(devices.getLast()), 10);
+
+        assertEquals(2, devices.size());
+        assertTrue(devices.getFirst().getId() > devices.getLast().getId());
+        assertTrue(rest.isEmpty());
+    }
+
+    @Test
+    void findResponseById_ProjectsDevice() {
+        DeviceEntity device = deviceRepository.save(new DeviceEntity("Galaxy S25", "Samsung", DeviceState.IN_USE));
+
+        DeviceResponseDto response = deviceRepository.findResponseById(device.getId()).orElseThrow();
+
+        assertEquals("Galaxy S25", response.getName());
+        assertEquals(DeviceState.IN_USE, response.getState());
+        assertTrue(deviceRepository.findResponseById(-1L).isEmpty());
+    }
+
+    @Test
+    void countByBrandAndState_GroupsByLowerCaseBrand() {
+        List<DeviceCount> counts = deviceRepository.countByBrandAndState();
+
+        assertEquals(4, counts.size());
+        assertEquals(2, counts.stream().filter(c -> c.getBrand().equals("google")).mapToLong(DeviceCount::getTotal).sum());
+    }
+
+    @Test
+    void findListByBrand_ReturnsPageContent() {
+        List<DeviceResponseDto> devices = deviceRepository.findListByBrandIgnoreCase("GOOGLE", PageRequest.of(0, 1, Sort.by("name")));
+
+        assertEquals(1, devices.size());
+        assertEquals("Pixel 9", devices.getFirst().getName());
+        assertEquals(2, deviceRepository.countByBrandIgnoreCase("google"));
+    }
+
+    @Test
+    void findList_SortedByStateDesc_ReturnsPageContent() {
+        List<DeviceResponseDto> devices = deviceRepository.findList(PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "state", "id")));
+
+        assertEquals(2, devices.size());
+        assertEquals(DeviceState.AVAILABLE, devices.getLast().getState());
+    }
+
+    @Test
+    void findList_UnknownSortProperty_ThrowsException() {
+        assertThrows(DeviceValidationException.class,
+                () -> deviceRepository.findList(PageRequest.of(0, 2, Sort.by("creation_time"))));
+    }
+
+    @Test
+    void estimateCount_ReturnsPlannerStatistics() {
+        entityManager.flush();
+
+        // not analyzed yet is reported as a negative value
+        assertTrue(deviceRepository.estimateCount() >= -1);
+    }
+
+    @Test
+    void saveAll_AssignsIdsFromPooledSequence() {
+        List<DeviceEntity> devices = deviceRepository.saveAll(List.of(
+                new DeviceEntity("Galaxy S25", "Samsung", DeviceState.AVAILABLE),
+                new DeviceEntity("Galaxy S25+", "Samsung", DeviceState.AVAILABLE)));
+        deviceRepository.flush();
+
+        assertEquals(devices.getFirst().getId() + 1, devices.getLast().getId());
+        assertNotNull(devices.getFirst().getCreationTime());
+        assertEquals(6, deviceRepository.count());
+    }
+
+    @Test
+    void streamByBrandIgnoreCase_ReturnsDevicesOrderedById() {
+        try (Stream<DeviceResponseDto> devices = deviceRepository.streamByBrandIgnoreCase("GOOGLE")) {
+            List<String> names = devices.map(DeviceResponseDto::getName).toList();
+
+            assertEquals(List.of("Pixel 9", "Pixel 9 Pro"), names);
+        }
+    }
+
+    @Test
+    void saveAndFlush_ChangedDevice_IncrementsVersion() {
+        DeviceEntity device = deviceRepository.saveAndFlush(new DeviceEntity("Galaxy S25", "Samsung", DeviceState.AVAILABLE));
+        assertEquals(0L, device.getVersion());
+
+        device.setState(DeviceState.IN_USE);
+        deviceRepository.saveAndFlush(device);
+
+        assertEquals(1L, device.getVersion());
+        assertEquals(1L, deviceRepository.findResponseById(device.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void flush_ConcurrentlyChangedDevice_ThrowsOptimisticLockingFailure() {
+        DeviceEntity device = deviceRepository.saveAndFlush(new DeviceEntity("Galaxy S25", "Samsung", DeviceState.AVAILABLE));
+        // a change committed by another transaction after this one read the device
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE device SET state = 'IN_USE', version = version + 1 WHERE id = :id")
+                .setParameter("id", device.getId())
+                .executeUpdate();
+
+        device.setName("Galaxy S25 Ultra");
+
+        assertThrows(OptimisticLockingFailureException.class, () -> deviceRepository.flush());
+    }
+
+    @Test
+    void deleteUnlessInUse_AvailableDevice_ReturnsDeletedDevice() {
+        DeviceEntity device = deviceRepository.saveAndFlush(new DeviceEntity("Galaxy S25", "Samsung", DeviceState.INACTIVE));
+
+        DeviceResponseDto deleted = deviceRepository.deleteUnlessInUse(device.getId()).orElseThrow();
+
+        assertEquals("Samsung", deleted.getBrand());
+        assertEquals(DeviceState.INACTIVE, deleted.getState());
+        assertNotNull(deleted.getCreationTime());
+        assertTrue(deviceRepository.findResponseById(device.getId()).isEmpty());
+    }
+
+    @Test
+    void deleteUnlessInUse_InUseDevice_KeepsDevice() {
+        DeviceEntity device = deviceRepository.saveAndFlush(new DeviceEntity("Galaxy S25", "Samsung", DeviceState.IN_USE));
+
+        assertTrue(deviceRepository.deleteUnlessInUse(device.getId()).isEmpty());
+        assertTrue(deviceRepository.deleteUnlessInUse(-1L).isEmpty());
+        assertTrue(deviceRepository.existsById(device.getId()));
+    }
+
+    @Test
+    void updateStateByIds_ChangesOnlyDevicesInOtherStates() {
+        entityManager.flush();
+        List<Long> ids = deviceRepository.findAll().stream().map(DeviceEntity::getId).toList();
+        entityManager.clear();
+        assertEquals(4, deviceRepository.findIdsByIdIn(List.of(ids.get(0), ids.get(1), ids.get(2), ids.get(3), -1L)).size());
+
+        List<DeviceStateChange> changes = deviceRepository.updateStateByIds(ids, DeviceState.AVAILABLE);
+
+        assertEquals(2, changes.size());
+        assertTrue(changes.stream().allMatch(change -> change.device().getState() == DeviceState.AVAILABLE));
+        assertTrue(changes.stream().allMatch(change -> change.device().getVersion() == 1L));
+        assertEquals(List.of(DeviceState.IN_USE, DeviceState.INACTIVE),
+                changes.stream().map(DeviceStateChange::previousState).toList());
+        assertEquals(4, deviceRepository.countByState(DeviceState.AVAILABLE));
+    }
+
+    @Test
+    void updateStateByFilter_ChangesUpToLimitInIdOrder() {
+        entityManager.flush();
+
+        List<DeviceStateChange> first = deviceRepository.updateStateByFilter("GOOGLE", null, DeviceState.AVAILABLE, 1);
+        List<DeviceStateChange> second = deviceRepository.updateStateByFilter("GOOGLE", null, DeviceState.AVAILABLE, 1);
+        List<DeviceStateChange> third = deviceRepository.updateStateByFilter("GOOGLE", null, DeviceState.AVAILABLE, 1);
+
+        assertEquals("Pixel 9", first.getFirst().device().getName());
+        assertEquals("Pixel 9 Pro", second.getFirst().device().getName());
+        assertTrue(third.isEmpty());
+        assertTrue(deviceRepository.updateStateByFilter(null, DeviceState.IN_USE, DeviceState.INACTIVE, 10).isEmpty());
+    }
+
 }
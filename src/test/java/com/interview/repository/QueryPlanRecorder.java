@@ -0,0 +1,182 @@
+package com.interview.repository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Records the execution plans of the statements sent through a {@link DataSource}. While recording, every prepared
+ * statement is first run with {@code EXPLAIN (ANALYZE, BUFFERS)} and the same parameters, then executed as usual.
+ * Explained writes are executed twice, so recording is meant for transactions that are rolled back.
+ */
+class QueryPlanRecorder implements BeanPostProcessor {
+
+    private static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) ";
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final ThreadLocal<List<QueryPlan>> PLANS = new ThreadLocal<>();
+
+    /**
+     * Plan of one statement.
+     * @param sql - Explained statement.
+     * @param plan - Root node of the plan.
+     */
+    record QueryPlan(String sql, JsonNode plan) {
+
+        /**
+         * Get the number of shared buffers the statement hit or read, including all plan nodes.
+         * @return - Number of shared buffers.
+         */
+        long buffers() {
+            return plan.path("Shared Hit Blocks").asLong() + plan.path("Shared Read Blocks").asLong();
+        }
+
+        /**
+         * Get the relations read with a sequential scan.
+         * @return - Relation names.
+         */
+        List<String> sequentialScans() {
+            List<String> relations = new ArrayList<>();
+            collectSequentialScans(plan, relations);
+            return relations;
+        }
+
+        private static void collectSequentialScans(JsonNode node, List<String> relations) {
+            if ("Seq Scan".equals(node.path("Node Type").asText())) {
+                relations.add(node.path("Relation Name").asText());
+            }
+            node.path("Plans").forEach(child -> collectSequentialScans(child, relations));
+        }
+
+        @Override
+        public String toString() {
+            return sql + "\n" + plan.toPrettyString();
+        }
+
+    }
+
+    /**
+     * Run an action and record the plans of the statements it executes on the current thread.
+     * @param action - Action to run.
+     * @return - Plans in execution order.
+     */
+    static List<QueryPlan> record(Runnable action) {
+        List<QueryPlan> plans = new ArrayList<>();
+        PLANS.set(plans);
+        try {
+            action.run();
+        } finally {
+            PLANS.remove();
+        }
+        return plans;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Connection connection ? proxy(Connection.class, connection, new ConnectionHandler())
+                        : result;
+            });
+        }
+        return bean;
+    }
+
+    private static class ConnectionHandler implements Handler<Connection> {
+
+        @Override
+        public Object invoke(Connection connection, Method method, Object[] args) throws Exception {
+            Object result = method.invoke(connection, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return proxy(PreparedStatement.class, statement, new StatementHandler(connection, (String) args[0]));
+            }
+            return result;
+        }
+
+    }
+
+    private static class StatementHandler implements Handler<PreparedStatement> {
+
+        private final Connection connection;
+        private final String sql;
+        // setter calls by parameter index, replayed on the explained statement
+        private final Map<Integer, Invocation> parameters = new LinkedHashMap<>();
+
+        StatementHandler(Connection connection, String sql) {
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(PreparedStatement statement, Method method, Object[] args) throws Exception {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer index) {
+                parameters.put(index, new Invocation(method, args));
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (EXECUTE_METHODS.contains(name) && (args == null || args.length == 0) && PLANS.get() != null) {
+                PLANS.get().add(explain());
+            }
+            return method.invoke(statement, args);
+        }
+
+        private QueryPlan explain() throws SQLException, ReflectiveOperationException, JsonProcessingException {
+            try (PreparedStatement explain = connection.prepareStatement(EXPLAIN + sql)) {
+                for (Invocation parameter : parameters.values()) {
+                    parameter.method().invoke(explain, parameter.args());
+                }
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    resultSet.next();
+                    JsonNode plan = OBJECT_MAPPER.readTree(resultSet.getString(1)).get(0).get("Plan");
+                    return new QueryPlan(sql, plan);
+                }
+            }
+        }
+
+    }
+
+    private record Invocation(Method method, Object[] args) {
+    }
+
+    @FunctionalInterface
+    private interface Handler<T> {
+
+        Object invoke(T target, Method method, Object[] args) throws Exception;
+
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            try {
+                return handler.invoke(target, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(QueryPlanRecorder.class.getClassLoader(), new Class<?>[]{type},
+                invocationHandler));
+    }
+
+}
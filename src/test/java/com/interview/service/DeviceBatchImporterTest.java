@@ -0,0 +1,154 @@
+package com.interview.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.dto.DeviceBatchResponseDto;
+import com.interview.dto.DeviceCreateRequestDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceBatchItemStatus;
+import com.interview.enums.DeviceState;
+import com.interview.exception.DeviceValidationException;
+import com.interview.service.impl.DeviceBatchImporter;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceBatchImporterTest {
+
+    @Mock
+    private DeviceService deviceService;
+
+    private DeviceBatchImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        importer = new DeviceBatchImporter(deviceService, new ObjectMapper(), validator, 2, 3);
+    }
+
+    @Test
+    void importDevices_ValidItems_CreatesInBatches() throws IOException {
+        AtomicLong ids = new AtomicLong();
+        when(deviceService.createDevices(anyList())).thenAnswer(invocation -> {
+            List<DeviceCreateRequestDto> batch = invocation.getArgument(0);
+            return batch.stream()
+                    .map(dto -> new DeviceResponseDto(ids.incrementAndGet(), dto.getName(), dto.getBrand(),
+                            DeviceState.AVAILABLE, LocalDateTime.now()))
+                    .toList();
+        });
+
+        DeviceBatchResponseDto response = importer.importDevices(json("""
+                [{"name": "iPhone 15", "brand": "Apple"},
+                 {"name": "Pixel 9", "brand": "Google"},
+                 {"name": "Galaxy S24", "brand": "Samsung"}]
+                """));
+
+        assertEquals(3, response.getCreated());
+        assertEquals(0, response.getFailed());
+        assertEquals(List.of(1L, 2L, 3L), response.getResults().stream().map(r -> r.getId()).toList());
+        verify(deviceService, times(2)).createDevices(anyList());
+    }
+
+    @Test
+    void importDevices_InvalidItems_ReportsThemInOrder() throws IOException {
+        when(deviceService.createDevices(anyList())).thenReturn(List.of(
+                new DeviceResponseDto(10L, "Pixel 9", "Google", DeviceState.AVAILABLE, LocalDateTime.now())));
+
+        DeviceBatchResponseDto response = importer.importDevices(json("""
+                [{"name": "", "brand": "Apple"}, "device", {"name": "Pixel 9", "brand": "Google"}, {"name": []}]
+                """));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(3, response.getFailed());
+        assertEquals(List.of(DeviceBatchItemStatus.INVALID, DeviceBatchItemStatus.INVALID,
+                        DeviceBatchItemStatus.CREATED, DeviceBatchItemStatus.INVALID),
+                response.getResults().stream().map(r -> r.getStatus()).toList());
+        assertEquals(List.of("name: Device name is required"), response.getResults().getFirst().getErrors());
+        assertEquals(10L, response.getResults().get(2).getId());
+    }
+
+    @Test
+    void importDevices_DatabaseFailure_MarksBatchFailed() throws IOException {
+        when(deviceService.createDevices(anyList())).thenThrow(new DataIntegrityViolationException("value too long"));
+
+        DeviceBatchResponseDto response = importer.importDevices(json("""
+                [{"name": "iPhone 15", "brand": "Apple"}]
+                """));
+
+        assertEquals(0, response.getCreated());
+        assertEquals(DeviceBatchItemStatus.FAILED, response.getResults().getFirst().getStatus());
+        assertNull(response.getResults().getFirst().getId());
+    }
+
+    @Test
+    void importDevices_MalformedJson_StopsAndKeepsParsedItems() throws IOException {
+        when(deviceService.createDevices(anyList())).thenReturn(List.of(
+                new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, LocalDateTime.now())));
+
+        DeviceBatchResponseDto response = importer.importDevices(json("""
+                [{"name": "iPhone 15", "brand": "Apple"}, {"name": "Pixel
+                """));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getResults().size());
+        assertEquals(1, response.getResults().get(1).getIndex());
+        assertEquals(DeviceBatchItemStatus.INVALID, response.getResults().get(1).getStatus());
+    }
+
+    @Test
+    void importDevices_TooManyItems_StopsAtLimitAndKeepsCreatedDevices() throws IOException {
+        AtomicLong ids = new AtomicLong();
+        when(deviceService.createDevices(anyList())).thenAnswer(invocation -> {
+            List<DeviceCreateRequestDto> batch = invocation.getArgument(0);
+            return batch.stream()
+                    .map(dto -> new DeviceResponseDto(ids.incrementAndGet(), dto.getName(), dto.getBrand(),
+                            DeviceState.AVAILABLE, LocalDateTime.now()))
+                    .toList();
+        });
+
+        DeviceBatchResponseDto response = importer.importDevices(json("""
+                [{"name": "iPhone 15", "brand": "Apple"},
+                 {"name": "Pixel 9", "brand": "Google"},
+                 {"name": "Galaxy S24", "brand": "Samsung"},
+                 {"name": "Xperia 1", "brand": "Sony"},
+                 {"name": "Nord 4", "brand": "OnePlus"}]
+                """));
+
+        assertEquals(3, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertEquals(4, response.getResults().size());
+        assertEquals(3, response.getResults().getLast().getIndex());
+        assertEquals(DeviceBatchItemStatus.INVALID, response.getResults().getLast().getStatus());
+    }
+
+    @Test
+    void importDevices_NotAnArray_ThrowsException() {
+        assertThrows(DeviceValidationException.class, () -> importer.importDevices(json("{\"name\": \"iPhone\"}")));
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
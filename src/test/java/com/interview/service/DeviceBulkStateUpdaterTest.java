@@ -0,0 +1,75 @@
+package com.interview.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.interview.dto.DeviceBulkStateRequestDto;
+import com.interview.dto.DeviceBulkStateResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.exception.DeviceValidationException;
+import com.interview.service.impl.DeviceBulkStateUpdater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceBulkStateUpdaterTest {
+
+    @Mock
+    private DeviceService deviceService;
+
+    private DeviceBulkStateUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        updater = new DeviceBulkStateUpdater(deviceService, 2);
+    }
+
+    @Test
+    void updateStates_ByIds_UpdatesDistinctIdsInChunks() {
+        when(deviceService.updateDeviceStates(List.of(1L, 2L), DeviceState.INACTIVE))
+                .thenReturn(new DeviceBulkStateResponseDto(List.of(1L), List.of(2L), List.of()));
+        when(deviceService.updateDeviceStates(List.of(3L), DeviceState.INACTIVE))
+                .thenReturn(new DeviceBulkStateResponseDto(List.of(), List.of(), List.of(3L)));
+
+        DeviceBulkStateResponseDto result = updater.updateStates(
+                new DeviceBulkStateRequestDto(Arrays.asList(1L, 2L, null, 1L, 3L), null, null, DeviceState.INACTIVE));
+
+        assertEquals(List.of(1L), result.getUpdated());
+        assertEquals(List.of(2L), result.getUnchanged());
+        assertEquals(List.of(3L), result.getNotFound());
+    }
+
+    @Test
+    void updateStates_ByFilter_ContinuesWhileChunksAreFull() {
+        when(deviceService.updateDeviceStates("Apple", DeviceState.AVAILABLE, DeviceState.IN_USE, 2))
+                .thenReturn(new DeviceBulkStateResponseDto(List.of(1L, 2L), List.of(), List.of()))
+                .thenReturn(new DeviceBulkStateResponseDto(List.of(5L), List.of(), List.of()));
+
+        DeviceBulkStateResponseDto result = updater.updateStates(
+                new DeviceBulkStateRequestDto(null, "Apple", DeviceState.AVAILABLE, DeviceState.IN_USE));
+
+        assertEquals(List.of(1L, 2L, 5L), result.getUpdated());
+        verify(deviceService, times(2)).updateDeviceStates("Apple", DeviceState.AVAILABLE, DeviceState.IN_USE, 2);
+    }
+
+    @Test
+    void updateStates_IdsAndFilter_ThrowsException() {
+        assertThrows(DeviceValidationException.class, () -> updater.updateStates(
+                new DeviceBulkStateRequestDto(List.of(1L), "Apple", null, DeviceState.IN_USE)));
+        assertThrows(DeviceValidationException.class, () -> updater.updateStates(
+                new DeviceBulkStateRequestDto(null, null, null, DeviceState.IN_USE)));
+        verify(deviceService, never()).updateDeviceStates(any(), any());
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.interview.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.service.impl.DeviceExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceExporterTest {
+
+    @Mock
+    private DeviceService deviceService;
+
+    private DeviceExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new DeviceExporter(deviceService, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void exportDevices_WritesOneDevicePerLine() throws IOException {
+        exportAnswer(new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, null),
+                new DeviceResponseDto(2L, "Pixel 9", "Google", DeviceState.IN_USE, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.exportDevices(null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":1,\"name\":\"iPhone 15\",\"brand\":\"Apple\",\"state\":\"AVAILABLE\",\"creationTime\":null}",
+                lines[0]);
+        assertEquals(2L, new ObjectMapper().readTree(lines[1]).get("id").asLong());
+        assertEquals("", lines[2]);
+    }
+
+    @Test
+    void exportDevices_BrokenStream_ThrowsIOException() {
+        exportAnswer(new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, LocalDateTime.now()));
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        assertThrows(IOException.class, () -> exporter.exportDevices(null, null, out));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportAnswer(DeviceResponseDto... devices) {
+        doAnswer(invocation -> {
+            Consumer<DeviceResponseDto> consumer = invocation.getArgument(2);
+            for (DeviceResponseDto device : devices) {
+                consumer.accept(device);
+            }
+            return null;
+        }).when(deviceService).exportDevices(eq(null), eq(null), any(Consumer.class));
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.interview.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.interview.dto.DeviceCreateRequestDto;
+import com.interview.dto.DeviceResponseDto;
+import com.interview.enums.DeviceState;
+import com.interview.exception.ServiceOverloadedException;
+import com.interview.service.impl.DeviceGroupCommitter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceGroupCommitterTest {
+
+    @Mock
+    private DeviceService deviceService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong ids = new AtomicLong();
+
+    private DeviceGroupCommitter committer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        committer.stop();
+    }
+
+    @Test
+    void createDevice_ConcurrentCalls_CommittedInOneGroup() throws Exception {
+        // given
+        committer = start(3, Duration.ofSeconds(10), 10);
+        when(deviceService.createDevices(anyList())).thenAnswer(invocation -> create(invocation.getArgument(0)));
+
+        // when
+        List<CompletableFuture<DeviceResponseDto>> results = new ArrayList<>();
+        for (String name : List.of("iPhone 15", "Pixel 9", "Galaxy S24")) {
+            results.add(submit(name));
+        }
+
+        // then
+        for (int i = 0; i < results.size(); i++) {
+            DeviceResponseDto device = results.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("iPhone 15", "Pixel 9", "Galaxy S24").get(i), device.getName());
+        }
+        verify(deviceService, times(1)).createDevices(anyList());
+        assertEquals(3.0, meterRegistry.get("device.create.group.size").summary().totalAmount());
+    }
+
+    @Test
+    void createDevice_GroupNotFull_CommittedAfterMaxDelay() throws Exception {
+        // given
+        committer = start(100, Duration.ofMillis(10), 10);
+        when(deviceService.createDevices(anyList())).thenAnswer(invocation -> create(invocation.getArgument(0)));
+
+        // when
+        DeviceResponseDto device = submit("iPhone 15").get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(1L, device.getId());
+        assertEquals(1L, meterRegistry.get("device.create.group.size").summary().count());
+    }
+
+    @Test
+    void createDevice_GroupFails_RetriesDevicesOneByOne() throws Exception {
+        // given
+        committer = start(2, Duration.ofSeconds(10), 10);
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("value too long");
+        when(deviceService.createDevices(anyList())).thenThrow(failure);
+        when(deviceService.createDevice(any(DeviceCreateRequestDto.class))).thenAnswer(invocation -> {
+            DeviceCreateRequestDto createDto = invocation.getArgument(0);
+            if (createDto.getName().equals("bad")) {
+                throw failure;
+            }
+            return create(List.of(createDto)).get(0);
+        });
+
+        // when
+        CompletableFuture<DeviceResponseDto> good = submit("iPhone 15");
+        CompletableFuture<DeviceResponseDto> bad = submit("bad");
+
+        // then
+        assertEquals("iPhone 15", good.get(5, TimeUnit.SECONDS).getName());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertEquals(failure, exception.getCause());
+        verify(deviceService, times(2)).createDevice(any(DeviceCreateRequestDto.class));
+    }
+
+    @Test
+    void createDevice_QueueFull_RejectsCaller() throws Exception {
+        // given
+        committer = start(1, Duration.ZERO, 1);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(deviceService.createDevices(anyList())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            return create(invocation.getArgument(0));
+        });
+
+        CompletableFuture<DeviceResponseDto> first = submit("iPhone 15");
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<DeviceResponseDto> queued = submit("Pixel 9");
+        awaitQueued(1);
+
+        // when
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> committer.createDevice(new DeviceCreateRequestDto("Galaxy S24", "Samsung")));
+
+        // then
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("device.create.rejected").counter().count());
+        release.countDown();
+        assertEquals("iPhone 15", first.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("Pixel 9", queued.get(5, TimeUnit.SECONDS).getName());
+    }
+
+    @Test
+    void createDevice_Disabled_RejectsCaller() {
+        // given
+        committer = new DeviceGroupCommitter(deviceService, false, 10, Duration.ofMillis(10), 10, meterRegistry);
+        committer.start();
+
+        // when
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> committer.createDevice(new DeviceCreateRequestDto("iPhone 15", "Apple")));
+
+        // then
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        verify(deviceService, never()).createDevices(anyList());
+    }
+
+    private DeviceGroupCommitter start(int groupSize, Duration maxDelay, int queueCapacity) {
+        DeviceGroupCommitter started = new DeviceGroupCommitter(deviceService, true, groupSize, maxDelay,
+                queueCapacity, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private CompletableFuture<DeviceResponseDto> submit(String name) {
+        CompletableFuture<DeviceResponseDto> result = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                result.complete(committer.createDevice(new DeviceCreateRequestDto(name, "Brand")));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queueSize() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, queueSize());
+    }
+
+    private int queueSize() {
+        return (int) meterRegistry.get("device.create.queue").gauge().value();
+    }
+
+    private List<DeviceResponseDto> create(List<DeviceCreateRequestDto> createDtos) {
+        return createDtos.stream()
+                .map(dto -> new DeviceResponseDto(ids.incrementAndGet(), dto.getName(), dto.getBrand(),
+                        DeviceState.AVAILABLE, LocalDateTime.now()))
+                .toList();
+    }
+
+}
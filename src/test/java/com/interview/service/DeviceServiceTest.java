@@ -1,39 +1,68 @@
 package com.interview.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.interview.cache.DeviceCache;
+import com.interview.cache.DeviceCountTracker;
+import com.interview.cache.DeviceListTag;
+import com.interview.dto.DeviceBrandStatsDto;
+import com.interview.dto.DeviceBulkStateResponseDto;
 import com.interview.dto.DeviceCreateRequestDto;
 import com.interview.dto.DeviceResponseDto;
+import com.interview.dto.DeviceSliceResponseDto;
+import com.interview.dto.DeviceStatsResponseDto;
 import com.interview.dto.DeviceUpdateRequestDto;
 import com.interview.entity.DeviceEntity;
 import com.interview.enums.DeviceState;
+import com.interview.enums.DeviceChangeType;
+import com.interview.event.DeviceChangedEvent;
 import com.interview.exception.DeviceNotFoundException;
+import com.interview.exception.DevicePreconditionFailedException;
 import com.interview.exception.DeviceValidationException;
+import com.interview.exception.ServiceOverloadedException;
 import com.interview.mapper.DeviceMapper;
 import com.interview.mapper.DeviceMapperImpl;
+import com.interview.pagination.DeviceCursor;
 import com.interview.repository.DeviceRepository;
+import com.interview.repository.DeviceStateChange;
 import com.interview.service.impl.DeviceServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,11 +77,27 @@ class DeviceServiceTest {
     @Spy
     private DeviceMapper deviceMapper = new DeviceMapperImpl();
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DeviceCountTracker deviceCountTracker;
+
+    @Mock
+    private DeviceCache deviceCache;
+
+    @Mock
+    private DeviceListTag deviceListTag;
+
     private DeviceService deviceService;
 
     @BeforeEach
     void setUp() {
-        deviceService = new DeviceServiceImpl(deviceRepository, deviceMapper);
+        deviceService = new DeviceServiceImpl(deviceRepository, deviceMapper, eventPublisher, deviceCountTracker,
+                deviceCache, deviceListTag);
+        // loads run the loader directly, coalescing is covered by the cache tests
+        lenient().when(deviceCache.load(any(), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, DeviceResponseDto>>getArgument(1).apply(invocation.getArgument(0)));
     }
 
     @Test
@@ -80,18 +125,16 @@ class DeviceServiceTest {
         assertEquals(DEVICE_NAME, result.getName());
 
         verify(deviceRepository).save(deviceEntity);
+        verify(deviceRepository).flush();
     }
 
     @Test
     void getDeviceById_ExistingId_ReturnsDevice() {
         // given
-        DeviceEntity device = new DeviceEntity(DEVICE_NAME, BRAND, DeviceState.AVAILABLE);
-        device.setId(1L);
         DeviceResponseDto expectedResponse = new DeviceResponseDto(1L, DEVICE_NAME, BRAND,
                 DeviceState.AVAILABLE, LocalDateTime.now());
 
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
-        when(deviceMapper.toResponseDto(device)).thenReturn(expectedResponse);
+        when(deviceRepository.findResponseById(1L)).thenReturn(Optional.of(expectedResponse));
 
         // when
         DeviceResponseDto result = deviceService.getDeviceById(1L);
@@ -104,7 +147,7 @@ class DeviceServiceTest {
     @Test
     void getDeviceById_NonExistingId_ThrowsException() {
         // given
-        when(deviceRepository.findById(999L)).thenReturn(Optional.empty());
+        when(deviceRepository.findResponseById(999L)).thenReturn(Optional.empty());
 
         // when & then
         assertThrows(DeviceNotFoundException.class, () -> deviceService.getDeviceById(999L));
@@ -113,27 +156,35 @@ class DeviceServiceTest {
     @Test
     void deleteDevice_InUseDevice_ThrowsException() {
         // given
-        DeviceEntity device = new DeviceEntity(DEVICE_NAME, BRAND, DeviceState.IN_USE);
-        device.setId(1L);
-
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.deleteUnlessInUse(1L)).thenReturn(Optional.empty());
+        when(deviceRepository.existsById(1L)).thenReturn(true);
 
         // when & then
         assertThrows(DeviceValidationException.class, () -> deviceService.deleteDevice(1L));
-        verify(deviceRepository, never()).deleteById(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteDevice_NonExistingId_ThrowsException() {
+        // given
+        when(deviceRepository.deleteUnlessInUse(1L)).thenReturn(Optional.empty());
+        when(deviceRepository.existsById(1L)).thenReturn(false);
+
+        // when & then
+        assertThrows(DeviceNotFoundException.class, () -> deviceService.deleteDevice(1L));
     }
 
     @Test
     void deleteDevice_AvailableDevice_DeletesSuccessfully() {
         // given
-        DeviceEntity device = new DeviceEntity(DEVICE_NAME, BRAND, DeviceState.AVAILABLE);
-        device.setId(1L);
+        DeviceResponseDto device = new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now());
 
-        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        when(deviceRepository.deleteUnlessInUse(1L)).thenReturn(Optional.of(device));
 
         // when & then
         assertDoesNotThrow(() -> deviceService.deleteDevice(1L));
-        verify(deviceRepository).deleteById(1L);
+        verify(deviceRepository, never()).findById(any());
+        verify(deviceRepository, never()).existsById(any());
     }
 
     @Test
@@ -147,7 +198,59 @@ class DeviceServiceTest {
         when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
 
         // then
-        assertThrows(DeviceValidationException.class, () -> deviceService.updateDevice(1L, updateDto));
+        assertThrows(DeviceValidationException.class, () -> deviceService.updateDevice(1L, updateDto, null));
+    }
+
+    @Test
+    void updateDevice_VersionMismatch_ThrowsPreconditionFailed() {
+        // given
+        DeviceEntity device = new DeviceEntity(DEVICE_NAME, BRAND, DeviceState.AVAILABLE);
+        device.setId(1L);
+        device.setVersion(3L);
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.IN_USE);
+
+        // when
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+
+        // then
+        assertThrows(DevicePreconditionFailedException.class, () -> deviceService.updateDevice(1L, updateDto, 2L));
+        verify(deviceRepository, never()).save(any());
+    }
+
+    @Test
+    void updateDevice_ConcurrentChangeWithExpectedVersion_ThrowsPreconditionFailed() {
+        // given
+        DeviceEntity device = new DeviceEntity(DEVICE_NAME, BRAND, DeviceState.AVAILABLE);
+        device.setId(1L);
+        device.setVersion(3L);
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.IN_USE);
+
+        // when
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        doThrow(new OptimisticLockingFailureException("Row was updated")).when(deviceRepository).flush();
+
+        // then
+        assertThrows(DevicePreconditionFailedException.class, () -> deviceService.updateDevice(1L, updateDto, 3L));
+        assertThrows(OptimisticLockingFailureException.class, () -> deviceService.updateDevice(1L, updateDto, null));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateDevice_DeviceMovedToOtherPartitionWithExpectedVersion_ThrowsPreconditionFailed() {
+        // given
+        DeviceEntity device = new DeviceEntity(DEVICE_NAME, BRAND, DeviceState.AVAILABLE);
+        device.setId(1L);
+        device.setVersion(3L);
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.INACTIVE);
+
+        // when
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(device));
+        doThrow(new CannotAcquireLockException("Tuple to be locked was already moved to another partition"))
+                .when(deviceRepository).flush();
+
+        // then
+        assertThrows(DevicePreconditionFailedException.class, () -> deviceService.updateDevice(1L, updateDto, 3L));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -170,7 +273,7 @@ class DeviceServiceTest {
         when(deviceRepository.findById(1L)).thenReturn(Optional.of(existingDevice));
 
         // when
-        deviceService.updateDevice(1L, updateDto);
+        deviceService.updateDevice(1L, updateDto, null);
 
         // then
         verify(deviceRepository).save(expectedDeviceEntry);
@@ -195,31 +298,60 @@ class DeviceServiceTest {
         when(deviceRepository.findById(1L)).thenReturn(Optional.of(existingDevice));
 
         // when
-        deviceService.updateDevice(1L, updateDto);
+        deviceService.updateDevice(1L, updateDto, null);
 
         // then
         verify(deviceRepository).save(expectedDeviceEntry);
     }
 
+    @Test
+    void updateDeviceStates_ByIds_ReportsUnchangedAndNotFound() {
+        // given
+        DeviceResponseDto updated = new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.INACTIVE, LocalDateTime.now(), 1L);
+        when(deviceRepository.updateStateByIds(List.of(1L, 2L, 3L), DeviceState.INACTIVE))
+                .thenReturn(List.of(new DeviceStateChange(updated, DeviceState.IN_USE)));
+        when(deviceRepository.findIdsByIdIn(List.of(2L, 3L))).thenReturn(List.of(3L));
+
+        // when
+        DeviceBulkStateResponseDto result = deviceService.updateDeviceStates(List.of(1L, 2L, 3L), DeviceState.INACTIVE);
+
+        // then
+        assertEquals(List.of(1L), result.getUpdated());
+        assertEquals(List.of(3L), result.getUnchanged());
+        assertEquals(List.of(2L), result.getNotFound());
+
+        ArgumentCaptor<DeviceChangedEvent> captor = ArgumentCaptor.forClass(DeviceChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(DeviceState.IN_USE, captor.getValue().getPrevious().getState());
+        assertEquals(DeviceState.INACTIVE, captor.getValue().getCurrent().getState());
+    }
+
+    @Test
+    void updateDeviceStates_AllUpdated_SkipsLookup() {
+        // given
+        DeviceResponseDto updated = new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.INACTIVE, LocalDateTime.now(), 1L);
+        when(deviceRepository.updateStateByFilter(BRAND, null, DeviceState.INACTIVE, 10))
+                .thenReturn(List.of(new DeviceStateChange(updated, DeviceState.AVAILABLE)));
+
+        // when
+        DeviceBulkStateResponseDto result = deviceService.updateDeviceStates(BRAND, null, DeviceState.INACTIVE, 10);
+
+        // then
+        assertEquals(List.of(1L), result.getUpdated());
+        verify(deviceRepository, never()).findIdsByIdIn(any());
+    }
+
     @Test
     void getDevices_WithPagination_ReturnsPagedResult() {
         Pageable pageable = Pageable.ofSize(20);
-        List<DeviceEntity> devices = List.of(
-                new DeviceEntity("iPhone 15", "Apple", DeviceState.AVAILABLE),
-                new DeviceEntity("Galaxy S24", "Samsung", DeviceState.IN_USE)
-        );
-        Page<DeviceEntity> devicePage = new PageImpl<>(devices, pageable, 2);
-
         List<DeviceResponseDto> expectedDtos = List.of(
                 new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, LocalDateTime.now()),
                 new DeviceResponseDto(2L, "Galaxy S24", "Samsung", DeviceState.IN_USE, LocalDateTime.now())
         );
 
-        when(deviceRepository.findAll(pageable)).thenReturn(devicePage);
-        when(deviceMapper.toResponseDto(devices.get(0))).thenReturn(expectedDtos.get(0));
-        when(deviceMapper.toResponseDto(devices.get(1))).thenReturn(expectedDtos.get(1));
+        when(deviceRepository.findList(pageable)).thenReturn(expectedDtos);
 
-        Page<DeviceResponseDto> result = deviceService.getDevices(null, null, pageable);
+        Page<DeviceResponseDto> result = deviceService.getDevices(null, null, pageable, false);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
@@ -230,22 +362,14 @@ class DeviceServiceTest {
     @Test
     void getDevices_WithBrandFilter_ReturnsFilteredResults() {
         Pageable pageable = PageRequest.of(0, 20);
-        List<DeviceEntity> appleDevices = List.of(
-                new DeviceEntity("iPhone 15", BRAND, DeviceState.AVAILABLE),
-                new DeviceEntity("iPhone 16", BRAND, DeviceState.IN_USE)
-        );
-        Page<DeviceEntity> devicePage = new PageImpl<>(appleDevices, pageable, 2);
-
         List<DeviceResponseDto> expectedDtos = List.of(
                 new DeviceResponseDto(1L, "iPhone 15", BRAND, DeviceState.AVAILABLE, LocalDateTime.now()),
                 new DeviceResponseDto(3L, "iPhone 16", BRAND, DeviceState.IN_USE, LocalDateTime.now())
         );
 
-        when(deviceRepository.findByBrandIgnoreCase(BRAND, pageable)).thenReturn(devicePage);
-        when(deviceMapper.toResponseDto(appleDevices.get(0))).thenReturn(expectedDtos.get(0));
-        when(deviceMapper.toResponseDto(appleDevices.get(1))).thenReturn(expectedDtos.get(1));
+        when(deviceRepository.findListByBrandIgnoreCase(BRAND, pageable)).thenReturn(expectedDtos);
 
-        Page<DeviceResponseDto> result = deviceService.getDevices(BRAND, null, pageable);
+        Page<DeviceResponseDto> result = deviceService.getDevices(BRAND, null, pageable, false);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
@@ -255,22 +379,14 @@ class DeviceServiceTest {
     @Test
     void getDevices_WithStateFilter_ReturnsFilteredResults() {
         Pageable pageable = PageRequest.of(0, 20);
-        List<DeviceEntity> availableDevices = List.of(
-                new DeviceEntity("iPhone 15", "Apple", DeviceState.AVAILABLE),
-                new DeviceEntity("Galaxy S24", "Samsung", DeviceState.AVAILABLE)
-        );
-        Page<DeviceEntity> devicePage = new PageImpl<>(availableDevices, pageable, 2);
-
         List<DeviceResponseDto> expectedDtos = List.of(
                 new DeviceResponseDto(1L, "iPhone 15", "Apple", DeviceState.AVAILABLE, LocalDateTime.now()),
                 new DeviceResponseDto(2L, "Galaxy S24", "Samsung", DeviceState.AVAILABLE, LocalDateTime.now())
         );
 
-        when(deviceRepository.findByState(DeviceState.AVAILABLE, pageable)).thenReturn(devicePage);
-        when(deviceMapper.toResponseDto(availableDevices.get(0))).thenReturn(expectedDtos.get(0));
-        when(deviceMapper.toResponseDto(availableDevices.get(1))).thenReturn(expectedDtos.get(1));
+        when(deviceRepository.findListByState(DeviceState.AVAILABLE, pageable)).thenReturn(expectedDtos);
 
-        Page<DeviceResponseDto> result = deviceService.getDevices(null, DeviceState.AVAILABLE, pageable);
+        Page<DeviceResponseDto> result = deviceService.getDevices(null, DeviceState.AVAILABLE, pageable, false);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
@@ -281,18 +397,12 @@ class DeviceServiceTest {
     void getDevices_WithBrandAndStateFilter_ReturnsFilteredResults() {
         Pageable pageable = PageRequest.of(0, 20);
         DeviceState state = DeviceState.AVAILABLE;
-        List<DeviceEntity> filteredDevices = List.of(
-                new DeviceEntity(DEVICE_NAME, BRAND, DeviceState.AVAILABLE)
-        );
-        Page<DeviceEntity> devicePage = new PageImpl<>(filteredDevices, pageable, 1);
-
         DeviceResponseDto expectedDto = new DeviceResponseDto(1L, DEVICE_NAME, BRAND,
                 DeviceState.AVAILABLE, LocalDateTime.now());
 
-        when(deviceRepository.findByBrandIgnoreCaseAndState(BRAND, state, pageable)).thenReturn(devicePage);
-        when(deviceMapper.toResponseDto(filteredDevices.getFirst())).thenReturn(expectedDto);
+        when(deviceRepository.findListByBrandIgnoreCaseAndState(BRAND, state, pageable)).thenReturn(List.of(expectedDto));
 
-        Page<DeviceResponseDto> result = deviceService.getDevices(BRAND, state, pageable);
+        Page<DeviceResponseDto> result = deviceService.getDevices(BRAND, state, pageable, false);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
@@ -300,4 +410,264 @@ class DeviceServiceTest {
         assertEquals(DeviceState.AVAILABLE, result.getContent().getFirst().getState());
     }
 
+    @Test
+    void scrollDevices_MoreDevicesThanSize_ReturnsNextCursor() {
+        // given
+        DeviceResponseDto first = new DeviceResponseDto(2L, "Galaxy S24", "Samsung", DeviceState.AVAILABLE, LocalDateTime.now());
+        DeviceResponseDto second = new DeviceResponseDto(1L, "iPhone 15", BRAND, DeviceState.AVAILABLE, LocalDateTime.now());
+        DeviceResponseDto third = new DeviceResponseDto(3L, "Pixel 9", "Google", DeviceState.AVAILABLE, LocalDateTime.now());
+
+        when(deviceRepository.seekByState(eq(DeviceState.AVAILABLE), any(DeviceCursor.class), eq(3)))
+                .thenReturn(List.of(first, second, third));
+
+        // when
+        DeviceSliceResponseDto result = deviceService.scrollDevices(null, DeviceState.AVAILABLE, null, 2, Sort.by("name"));
+
+        // then
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+
+        DeviceCursor next = DeviceCursor.decode(result.getNextCursor());
+        assertEquals("name", next.getProperty());
+        assertEquals("iPhone 15", next.getLastValue());
+        assertEquals(1L, next.getLastId());
+    }
+
+    @Test
+    void scrollDevices_LastSlice_ReturnsNoCursor() {
+        // given
+        DeviceResponseDto device = new DeviceResponseDto(5L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now());
+        String cursor = DeviceCursor.first(Sort.unsorted())
+                .after(new DeviceResponseDto(4L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now()))
+                .encode();
+
+        when(deviceRepository.seekByBrandIgnoreCase(eq(BRAND), any(DeviceCursor.class), eq(21)))
+                .thenReturn(List.of(device));
+
+        // when
+        DeviceSliceResponseDto result = deviceService.scrollDevices(BRAND, null, cursor, 20, Sort.unsorted());
+
+        // then
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void scrollDevices_SortChangedWithCursor_ThrowsException() {
+        String cursor = DeviceCursor.first(Sort.by("name"))
+                .after(new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now()))
+                .encode();
+
+        assertThrows(DeviceValidationException.class,
+                () -> deviceService.scrollDevices(null, null, cursor, 20, Sort.by("brand")));
+    }
+
+    @Test
+    void scrollDevices_InvalidSize_ThrowsException() {
+        assertThrows(DeviceValidationException.class,
+                () -> deviceService.scrollDevices(null, null, null, 0, Sort.unsorted()));
+    }
+
+    @Test
+    void getDevicesTag_ReturnsTrackedTag() {
+        // given
+        when(deviceListTag.current()).thenReturn(Optional.of("5eed-2"));
+
+        // when
+        Optional<String> tag = deviceService.getDevicesTag();
+
+        // then
+        assertEquals(Optional.of("5eed-2"), tag);
+        verifyNoInteractions(deviceRepository);
+    }
+
+    @Test
+    void getDeviceStats_Tracked_SkipsAggregateQuery() {
+        // given
+        DeviceStatsResponseDto stats = new DeviceStatsResponseDto(0, Map.of(), List.of());
+        when(deviceCountTracker.stats()).thenReturn(Optional.of(stats));
+
+        // when
+        DeviceStatsResponseDto result = deviceService.getDeviceStats();
+
+        // then
+        assertEquals(stats, result);
+        verify(deviceRepository, never()).countByBrandAndState();
+    }
+
+    @Test
+    void getDeviceStats_TrackerNotLoaded_ThrowsServiceOverloaded() {
+        // given
+        when(deviceCountTracker.stats()).thenReturn(Optional.empty());
+
+        // when
+        assertThrows(ServiceOverloadedException.class, () -> deviceService.getDeviceStats());
+
+        // then
+        verifyNoInteractions(deviceRepository);
+    }
+
+    @Test
+    void suggestBrands_TrackerNotLoaded_ThrowsServiceOverloaded() {
+        // given
+        when(deviceCountTracker.suggestBrands("ap", 5)).thenReturn(Optional.empty());
+
+        // when
+        assertThrows(ServiceOverloadedException.class, () -> deviceService.suggestBrands("ap", 5));
+
+        // then
+        verifyNoInteractions(deviceRepository);
+    }
+
+    @Test
+    void suggestBrands_InvalidLimit_ThrowsException() {
+        assertThrows(DeviceValidationException.class, () -> deviceService.suggestBrands("ap", 0));
+        assertThrows(DeviceValidationException.class, () -> deviceService.suggestBrands("ap", 101));
+    }
+
+    @Test
+    void getDevices_FullPage_UsesTrackedTotal() {
+        Pageable pageable = PageRequest.of(0, 1);
+        List<DeviceResponseDto> devices = List.of(
+                new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now()));
+
+        when(deviceRepository.findListByState(DeviceState.AVAILABLE, pageable)).thenReturn(devices);
+        when(deviceCountTracker.count(null, DeviceState.AVAILABLE)).thenReturn(OptionalLong.of(42));
+
+        Page<DeviceResponseDto> result = deviceService.getDevices(null, DeviceState.AVAILABLE, pageable, false);
+
+        assertEquals(42, result.getTotalElements());
+        verify(deviceRepository, never()).countByState(any());
+    }
+
+    @Test
+    void getDevices_TrackerNotLoaded_FallsBackToCountQuery() {
+        Pageable pageable = PageRequest.of(0, 1);
+        List<DeviceResponseDto> devices = List.of(
+                new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now()));
+
+        when(deviceRepository.findListByBrandIgnoreCase(BRAND, pageable)).thenReturn(devices);
+        when(deviceCountTracker.count(BRAND, null)).thenReturn(OptionalLong.empty());
+        when(deviceRepository.countByBrandIgnoreCase(BRAND)).thenReturn(7L);
+
+        Page<DeviceResponseDto> result = deviceService.getDevices(BRAND, null, pageable, false);
+
+        assertEquals(7, result.getTotalElements());
+    }
+
+    @Test
+    void getDevices_EstimatedTotal_UsesPlannerEstimate() {
+        Pageable pageable = PageRequest.of(0, 1);
+        List<DeviceResponseDto> devices = List.of(
+                new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now()));
+
+        when(deviceRepository.findList(pageable)).thenReturn(devices);
+        when(deviceRepository.estimateCount()).thenReturn(1_000_000L);
+
+        Page<DeviceResponseDto> result = deviceService.getDevices(null, null, pageable, true);
+
+        assertEquals(1_000_000L, result.getTotalElements());
+        verify(deviceCountTracker, never()).count(any(), any());
+    }
+
+    @Test
+    void updateDevice_StateChange_PublishesPreviousAndCurrentState() {
+        // given
+        DeviceEntity existingDevice = new DeviceEntity(DEVICE_NAME, BRAND, DeviceState.AVAILABLE);
+        existingDevice.setId(1L);
+        DeviceUpdateRequestDto updateDto = new DeviceUpdateRequestDto(null, null, DeviceState.IN_USE);
+
+        when(deviceRepository.findById(1L)).thenReturn(Optional.of(existingDevice));
+        when(deviceRepository.save(existingDevice)).thenReturn(existingDevice);
+
+        // when
+        deviceService.updateDevice(1L, updateDto, null);
+
+        // then
+        ArgumentCaptor<DeviceChangedEvent> captor = ArgumentCaptor.forClass(DeviceChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(DeviceChangeType.UPDATED, captor.getValue().getType());
+        assertEquals(DeviceState.AVAILABLE, captor.getValue().getPrevious().getState());
+        assertEquals(DeviceState.IN_USE, captor.getValue().getCurrent().getState());
+    }
+
+    @Test
+    void deleteDevice_AvailableDevice_PublishesDeletedEvent() {
+        // given
+        DeviceResponseDto device = new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now());
+
+        when(deviceRepository.deleteUnlessInUse(1L)).thenReturn(Optional.of(device));
+
+        // when
+        deviceService.deleteDevice(1L);
+
+        // then
+        ArgumentCaptor<DeviceChangedEvent> captor = ArgumentCaptor.forClass(DeviceChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(DeviceChangeType.DELETED, captor.getValue().getType());
+        assertEquals(1L, captor.getValue().getDeviceId());
+        assertEquals(BRAND, captor.getValue().getPrevious().getBrand());
+    }
+
+    @Test
+    void getDeviceById_Cached_SkipsRepository() {
+        // given
+        DeviceResponseDto cached = new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now());
+        when(deviceCache.get(1L)).thenReturn(Optional.of(cached));
+
+        // when
+        DeviceResponseDto result = deviceService.getDeviceById(1L);
+
+        // then
+        assertEquals(cached, result);
+        verify(deviceRepository, never()).findResponseById(any());
+    }
+
+    @Test
+    void getDeviceById_NotCached_LoadsThroughCache() {
+        // given
+        DeviceResponseDto device = new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now());
+        when(deviceRepository.findResponseById(1L)).thenReturn(Optional.of(device));
+
+        // when
+        DeviceResponseDto result = deviceService.getDeviceById(1L);
+
+        // then
+        assertEquals(device, result);
+        verify(deviceCache).load(eq(1L), any());
+    }
+
+    @Test
+    void createDevices_ValidInput_SavesAllAsAvailable() {
+        // given
+        List<DeviceCreateRequestDto> createDtos = List.of(
+                new DeviceCreateRequestDto("iPhone 15", BRAND),
+                new DeviceCreateRequestDto("Pixel 9", "Google"));
+        when(deviceRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // when
+        List<DeviceResponseDto> result = deviceService.createDevices(createDtos);
+
+        // then
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(d -> d.getState() == DeviceState.AVAILABLE));
+        verify(eventPublisher, times(2)).publishEvent(any(DeviceChangedEvent.class));
+    }
+
+    @Test
+    void exportDevices_WithStateFilter_PassesDevicesToConsumer() {
+        // given
+        DeviceResponseDto first = new DeviceResponseDto(1L, DEVICE_NAME, BRAND, DeviceState.AVAILABLE, LocalDateTime.now());
+        DeviceResponseDto second = new DeviceResponseDto(2L, "iPhone 16", BRAND, DeviceState.AVAILABLE, LocalDateTime.now());
+        when(deviceRepository.streamByState(DeviceState.AVAILABLE)).thenReturn(Stream.of(first, second));
+        List<DeviceResponseDto> exported = new ArrayList<>();
+
+        // when
+        deviceService.exportDevices(null, DeviceState.AVAILABLE, exported::add);
+
+        // then
+        assertEquals(List.of(first, second), exported);
+    }
+
 }